@@ -4,7 +4,7 @@ import { HttpClientModule } from '@angular/common/http';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 
-import { EmployeeService, Employee } from './services/employee.service';
+import { EmployeeService, Employee, EmployeeFilter, HeadcountReport } from './services/employee.service';
 
 @Component({
   selector: 'app-root',
@@ -16,6 +16,9 @@ import { EmployeeService, Employee } from './services/employee.service';
 })
 export class App implements OnInit {
   employees: Employee[] = [];
+  nextCursor: string | null = null;
+  filter: EmployeeFilter = {};
+  headcounts?: HeadcountReport;
   searchedEmployee?: Employee;
   searchMatricule = '';
   newEmployee: Employee = {
@@ -31,9 +34,30 @@ export class App implements OnInit {
     this.loadEmployees();
   }
 
+  // Unfiltered: the locally synced directory (only changes are downloaded).
+  // Filtered: the first matching page from the server.
   loadEmployees() {
-    this.employeeService.getAllEmployees().subscribe(data => {
-      this.employees = data;
+    if (!this.filter.departement && !this.filter.poste && !this.filter.nom) {
+      this.employeeService.syncEmployees().subscribe(employees => {
+        this.employees = employees;
+        this.nextCursor = null;
+      });
+    } else {
+      this.employeeService.getEmployees(this.filter).subscribe(page => {
+        this.employees = page.content;
+        this.nextCursor = page.next;
+      });
+    }
+    this.employeeService.getHeadcounts().subscribe(report => {
+      this.headcounts = report;
+    });
+  }
+
+  loadMore() {
+    if (!this.nextCursor) return;
+    this.employeeService.getEmployees(this.filter, this.nextCursor).subscribe(page => {
+      this.employees = [...this.employees, ...page.content];
+      this.nextCursor = page.next;
     });
   }
 
@@ -0,0 +1,7 @@
+// One page of a keyset-paginated listing; pass `next` back as the cursor for the
+// following page (null on the last one)
+export interface CursorPage<T> {
+  content: T[];
+  size: number;
+  next: string | null;
+}
@@ -1,26 +1,132 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
+import { map } from 'rxjs/operators';
+
+import { CursorPage } from './cursor-page';
 
 export interface Employee {
   matricule: string;
   nom: string;
   poste: string;
+  departement?: string;
+  telephone?: string;
+  email?: string;
   dateEmbauche: string;
   createdAt?: string;
   updatedAt?: string;
 }
 
+// Directory filters; empty ones are not sent. nom matches names starting with it.
+export interface EmployeeFilter {
+  departement?: string;
+  poste?: string;
+  nom?: string;
+}
+
+// Delta sync response: with reset, `changed` is the whole directory
+export interface EmployeeChanges {
+  changed: Employee[];
+  deleted: string[];
+  token: string;
+  reset: boolean;
+}
+
+export interface Headcount {
+  departement: string | null;
+  poste: string | null;
+  count: number;
+}
+
+export interface HeadcountReport {
+  total: number;
+  byDepartement: Headcount[];
+  byPoste: Headcount[];
+  byDepartementAndPoste: Headcount[];
+}
+
 @Injectable({
   providedIn: 'root'
 })
 export class EmployeeService {
   private apiUrl = 'http://localhost:8082/api/employees'; // Matches your Java controller
 
-  constructor(private http: HttpClient) {}
+  // Local copy of the directory, kept across page loads; only deltas are fetched
+  private static readonly STORAGE_KEY = 'employees.sync';
+  private directory = new Map<string, Employee>();
+  private syncToken: string | null = null;
+
+  constructor(private http: HttpClient) {
+    this.restore();
+  }
+
+  // The whole directory, sorted by matricule, after applying what changed since the last sync
+  syncEmployees(): Observable<Employee[]> {
+    let params = new HttpParams();
+    if (this.syncToken) {
+      params = params.set('since', this.syncToken);
+    }
+    return this.http.get<EmployeeChanges>(`${this.apiUrl}/changes`, { params }).pipe(
+      map(changes => {
+        if (changes.reset) {
+          this.directory.clear();
+        }
+        changes.changed.forEach(employee => this.directory.set(employee.matricule, employee));
+        changes.deleted.forEach(matricule => this.directory.delete(matricule));
+        this.syncToken = changes.token;
+        this.persist();
+        return this.snapshot();
+      })
+    );
+  }
+
+  private snapshot(): Employee[] {
+    return [...this.directory.values()].sort((a, b) => a.matricule.localeCompare(b.matricule));
+  }
+
+  private restore() {
+    try {
+      const saved = localStorage.getItem(EmployeeService.STORAGE_KEY);
+      if (saved) {
+        const state = JSON.parse(saved) as { token: string; employees: Employee[] };
+        this.syncToken = state.token;
+        state.employees.forEach(employee => this.directory.set(employee.matricule, employee));
+      }
+    } catch {
+      // Unreadable or unavailable storage: start with a full sync
+      this.directory.clear();
+      this.syncToken = null;
+    }
+  }
+
+  private persist() {
+    try {
+      localStorage.setItem(EmployeeService.STORAGE_KEY,
+        JSON.stringify({ token: this.syncToken, employees: [...this.directory.values()] }));
+    } catch {
+      // Quota exceeded or storage disabled: the in-memory copy still saves traffic
+    }
+  }
+
+  // Filtering and paging happen on the server: only the displayed page is transferred
+  getEmployees(filter: EmployeeFilter = {}, cursor?: string | null, size?: number): Observable<CursorPage<Employee>> {
+    let params = new HttpParams();
+    for (const [key, value] of Object.entries(filter)) {
+      if (value) {
+        params = params.set(key, value);
+      }
+    }
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+    if (size) {
+      params = params.set('size', size);
+    }
+    return this.http.get<CursorPage<Employee>>(this.apiUrl, { params });
+  }
 
-  getAllEmployees(): Observable<Employee[]> {
-    return this.http.get<Employee[]>(this.apiUrl);
+  getHeadcounts(): Observable<HeadcountReport> {
+    return this.http.get<HeadcountReport>(`${this.apiUrl}/headcounts`);
   }
 
   getEmployeeByMatricule(matricule: string): Observable<Employee> {
@@ -0,0 +1,76 @@
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable } from 'rxjs';
+
+import { CursorPage } from './cursor-page';
+
+export interface Patient {
+  id?: string;
+  nom: string;
+  dateNaissance: string;
+  email?: string;
+  numeroTelephone?: string;
+  adresse?: string;
+  numeroSecuriteSociale?: string;
+  cin?: string;
+  isMinor?: boolean;
+  parentCin?: string;
+  createdAt?: string;
+  updatedAt?: string;
+  version?: number;
+}
+
+@Injectable({
+  providedIn: 'root'
+})
+export class PatientService {
+  private apiUrl = 'http://localhost:8081/patient-service/api/patients';
+
+  constructor(private http: HttpClient) {}
+
+  // Listings are keyset-paginated: pass the previous page's `next` as cursor until it is null
+  getPatients(cursor?: string | null, size?: number): Observable<CursorPage<Patient>> {
+    return this.http.get<CursorPage<Patient>>(this.apiUrl, { params: this.pageParams(cursor, size) });
+  }
+
+  getMinors(cursor?: string | null, size?: number): Observable<CursorPage<Patient>> {
+    return this.http.get<CursorPage<Patient>>(`${this.apiUrl}/minors`, { params: this.pageParams(cursor, size) });
+  }
+
+  getMinorsByParentCin(parentCin: string, cursor?: string | null, size?: number): Observable<CursorPage<Patient>> {
+    return this.http.get<CursorPage<Patient>>(`${this.apiUrl}/minors/parent/${parentCin}`,
+      { params: this.pageParams(cursor, size) });
+  }
+
+  searchPatients(nom: string, cursor?: string | null, size?: number): Observable<CursorPage<Patient>> {
+    const params = this.pageParams(cursor, size).set('nom', nom);
+    return this.http.get<CursorPage<Patient>>(`${this.apiUrl}/search`, { params });
+  }
+
+  getPatientById(id: string): Observable<Patient> {
+    return this.http.get<Patient>(`${this.apiUrl}/${id}`);
+  }
+
+  createPatient(patient: Patient): Observable<Patient> {
+    return this.http.post<Patient>(this.apiUrl, patient);
+  }
+
+  updatePatient(id: string, patient: Patient): Observable<Patient> {
+    return this.http.put<Patient>(`${this.apiUrl}/${id}`, patient);
+  }
+
+  deletePatient(id: string): Observable<void> {
+    return this.http.delete<void>(`${this.apiUrl}/${id}`);
+  }
+
+  private pageParams(cursor?: string | null, size?: number): HttpParams {
+    let params = new HttpParams();
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+    if (size) {
+      params = params.set('size', size);
+    }
+    return params;
+  }
+}
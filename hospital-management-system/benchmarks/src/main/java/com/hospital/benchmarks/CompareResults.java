@@ -0,0 +1,91 @@
+package com.hospital.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares two JMH JSON result files and exits with status 1 when a benchmark got slower
+// than the threshold (percent) by more than the combined error margins of both runs.
+//
+//   CompareResults <baseline.json> <current.json> [threshold-percent]
+public final class CompareResults {
+
+    private CompareResults() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        Path baselineFile = Path.of(args[0]);
+        if (Files.notExists(baselineFile)) {
+            System.err.println("No baseline at " + baselineFile + "; copy a jmh-result.json there to compare against it");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(baselineFile);
+        Map<String, Score> current = read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", after.score, "new");
+                continue;
+            }
+            // Positive means worse, whether the mode reports time per operation or throughput
+            double change = (after.score - before.score) / before.score * 100 * (after.higherIsBetter ? -1 : 1);
+            boolean regressed = change > threshold
+                    && Math.abs(after.score - before.score) > before.error + after.error;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.score, after.score, change,
+                    regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark method, mode and parameters, e.g. "...serializePatients avgt size=100"
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(' ').append(result.path("mode").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, "thrpt".equals(result.path("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static final class Score {
+        private final double score;
+        private final double error;
+        private final boolean higherIsBetter;
+
+        private Score(double score, double error, boolean higherIsBetter) {
+            this.score = score;
+            this.error = error;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
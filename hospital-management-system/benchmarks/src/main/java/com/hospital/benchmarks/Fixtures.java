@@ -0,0 +1,102 @@
+package com.hospital.benchmarks;
+
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.patient.dto.PatientDto;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Deterministic benchmark data and application contexts. Birth dates are relative to
+// today so the adult/minor split does not drift between runs on different dates.
+public final class Fixtures {
+
+    public static final long SEED = 42L;
+
+    private static final String[] FIRST_NAMES = {"Hélène", "Mohamed", "Fatima", "Jean", "Yassine", "Amina", "Pierre", "Khadija"};
+    private static final String[] LAST_NAMES = {"Benali", "Durand", "El Amrani", "Martin", "Ouazzani", "Lefèvre", "Tazi", "Bernard"};
+    private static final String[] DEPARTMENTS = {"Cardiologie", "Urgences", "Pédiatrie", "Radiologie", "Chirurgie"};
+    private static final String[] POSTES = {"Infirmier", "Médecin", "Aide-soignant", "Secrétaire", "Technicien"};
+
+    private Fixtures() {}
+
+    // Adult i has CIN "BA%06d"; every fourth adult has one minor child
+    public static List<PatientDto> patients(int adults) {
+        Random random = new Random(SEED);
+        LocalDate today = LocalDate.now();
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<PatientDto> patients = new ArrayList<>();
+        for (int i = 0; i < adults; i++) {
+            String cin = adultCin(i);
+            LocalDate adultBirth = today.minusYears(20 + random.nextInt(60)).minusDays(random.nextInt(365));
+            patients.add(new PatientDto(null, name(random), adultBirth,
+                    "adult" + i + "@example.com", phone(random), (1 + random.nextInt(200)) + " avenue Hassan II",
+                    String.format("%03d-%02d-%04d", i / 1_000_000, (i / 10_000) % 100, i % 10_000),
+                    cin, false, null, created, created));
+            if (i % 4 == 0) {
+                LocalDate minorBirth = today.minusYears(1 + random.nextInt(16)).minusDays(random.nextInt(365));
+                patients.add(new PatientDto(null, name(random), minorBirth,
+                        "minor" + i + "@example.com", phone(random), (1 + random.nextInt(200)) + " avenue Hassan II",
+                        null, null, true, cin, created, created));
+            }
+        }
+        return patients;
+    }
+
+    public static String adultCin(int i) {
+        return String.format("BA%06d", i);
+    }
+
+    public static List<EmployeeDto> employees(int count) {
+        Random random = new Random(SEED);
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<EmployeeDto> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(new EmployeeDto(matricule(i), name(random), POSTES[random.nextInt(POSTES.length)],
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], phone(random),
+                    "employee" + i + "@example.com", created, created));
+        }
+        return employees;
+    }
+
+    public static String matricule(int i) {
+        return String.format("EMP%05d", i);
+    }
+
+    // Boots a service without web server or discovery on a private in-memory H2 database.
+    // Both services share this classpath, so their application.yml and db/migration/V1
+    // scripts collide: config comes from here and Hibernate creates the schema instead.
+    public static ConfigurableApplicationContext start(Class<?> application, String database, Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.config.name", "benchmark");
+        defaults.put("spring.main.web-application-type", "none");
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("spring.cloud.bootstrap.enabled", "false");
+        defaults.put("eureka.client.enabled", "false");
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        defaults.put("spring.flyway.enabled", "false");
+        defaults.put("spring.jpa.hibernate.ddl-auto", "create");
+        defaults.put("spring.jpa.show-sql", "false");
+        defaults.put("spring.jpa.properties.hibernate.jdbc.batch_size", "500");
+        defaults.put("spring.jpa.properties.hibernate.order_inserts", "true");
+        defaults.put("logging.level.root", "WARN");
+        defaults.putAll(properties);
+        return new SpringApplicationBuilder(application)
+                .properties(defaults)
+                .run();
+    }
+
+    private static String name(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String phone(Random random) {
+        return String.format("06%08d", random.nextInt(100_000_000));
+    }
+}
@@ -0,0 +1,103 @@
+package com.hospital.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.patient.dto.CursorPage;
+import com.hospital.patient.dto.PatientDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Server-side cost of one list response per wire format: the time is the CPU spent turning
+// a page of DTOs into the bytes handed to Tomcat (plus gzip, as server.compression does for
+// bodies over 2KB), and the bytes on the wire for each combination are printed once per
+// fork. Mappers are set up like the services' (see WireFormatConfiguration).
+//
+//   mvn -pl benchmarks exec:exec@jmh -Djmh.args="WireFormat -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    // The default page size and the largest one clients may ask for
+    @Param({"50", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private CursorPage<PatientDto> patients;
+    private List<EmployeeDto> employees;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new BlackbirdModule())
+                .build();
+        patients = new CursorPage<>(Fixtures.patients(size).subList(0, size), "QkEwMDAwMjA");
+        employees = Fixtures.employees(size);
+
+        System.out.printf("%n%s%s, %d rows: patients %d bytes, employees %d bytes%n",
+                format, gzip ? "+gzip" : "", size, serializePatients().length, serializeEmployees().length);
+    }
+
+    @Benchmark
+    public byte[] serializePatients() throws IOException {
+        return write(patients);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployees() throws IOException {
+        return write(employees);
+    }
+
+    private byte[] write(Object body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        if (gzip) {
+            try (OutputStream out = new GZIPOutputStream(bytes)) {
+                objectMapper.writeValue(out, body);
+            }
+        } else {
+            objectMapper.writeValue(bytes, body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor": return new CBORFactory();
+            case "smile": return new SmileFactory();
+            default: return new JsonFactory();
+        }
+    }
+}
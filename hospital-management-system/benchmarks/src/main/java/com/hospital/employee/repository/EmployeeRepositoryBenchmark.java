@@ -0,0 +1,85 @@
+package com.hospital.employee.repository;
+
+import com.hospital.benchmarks.Fixtures;
+import com.hospital.employee.EmployeeServiceApplication;
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.entity.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Repository lookups against an embedded H2 holding EMPLOYEES employees
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class EmployeeRepositoryBenchmark {
+
+    private static final int EMPLOYEES = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Fixtures.start(EmployeeServiceApplication.class, "employee-bench", Map.of());
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        employeeRepository.saveAll(Fixtures.employees(EMPLOYEES).stream()
+                .map(dto -> {
+                    Employee employee = new Employee();
+                    employee.setMatricule(dto.getMatricule());
+                    employee.setNom(dto.getNom());
+                    employee.setPoste(dto.getPoste());
+                    employee.setDepartement(dto.getDepartement());
+                    employee.setTelephone(dto.getTelephone());
+                    employee.setEmail(dto.getEmail());
+                    return employee;
+                })
+                .collect(Collectors.toList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Deterministic stride through the employees (37 is coprime with EMPLOYEES)
+    private int nextEmployee() {
+        next = (next + 37) % EMPLOYEES;
+        return next;
+    }
+
+    @Benchmark
+    public Optional<EmployeeDto> findDtoByMatricule() {
+        return employeeRepository.findDtoByMatricule(Fixtures.matricule(nextEmployee()));
+    }
+
+    @Benchmark
+    public boolean existsByEmail() {
+        return employeeRepository.existsByEmail("employee" + nextEmployee() + "@example.com");
+    }
+
+    @Benchmark
+    public List<EmployeeDto> findAllDtos() {
+        return employeeRepository.findAllDtos();
+    }
+}
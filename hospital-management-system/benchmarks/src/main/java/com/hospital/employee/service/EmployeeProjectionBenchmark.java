@@ -0,0 +1,91 @@
+package com.hospital.employee.service;
+
+import com.hospital.benchmarks.Fixtures;
+import com.hospital.employee.EmployeeServiceApplication;
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.entity.Employee;
+import com.hospital.employee.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// findAll + field copy (the read path before projections) versus the constructor-expression
+// projection behind getAllEmployees, over the whole directory. Run with the GC profiler:
+//   mvn -pl benchmarks exec:exec@jmh -Djmh.args="EmployeeProjection -prof gc"
+// and compare gc.alloc.rate.norm (bytes/op) next to the time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class EmployeeProjectionBenchmark {
+
+    private static final int EMPLOYEES = 2_000;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeRepository employeeRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Fixtures.start(EmployeeServiceApplication.class, "employee-projection-bench", Map.of());
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        employeeRepository.saveAll(Fixtures.employees(EMPLOYEES).stream()
+                .map(dto -> {
+                    Employee employee = new Employee();
+                    employee.setMatricule(dto.getMatricule());
+                    employee.setNom(dto.getNom());
+                    employee.setPoste(dto.getPoste());
+                    employee.setDepartement(dto.getDepartement());
+                    employee.setTelephone(dto.getTelephone());
+                    employee.setEmail(dto.getEmail());
+                    return employee;
+                })
+                .collect(Collectors.toList()));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        if (entities().size() != EMPLOYEES || projections().size() != EMPLOYEES) {
+            throw new IllegalStateException("Expected " + EMPLOYEES + " employees on both sides");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Every row hydrated as a managed entity, then copied
+    @Benchmark
+    public List<EmployeeDto> entities() {
+        return readOnly.execute(status -> employeeRepository.findAll()
+                .stream()
+                .map(e -> new EmployeeDto(e.getMatricule(), e.getNom(), e.getPoste(), e.getDepartement(),
+                        e.getTelephone(), e.getEmail(), e.getCreatedAt(), e.getUpdatedAt()))
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<EmployeeDto> projections() {
+        return employeeService.getAllEmployees();
+    }
+}
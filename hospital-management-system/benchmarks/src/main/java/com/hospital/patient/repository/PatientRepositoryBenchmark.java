@@ -0,0 +1,102 @@
+package com.hospital.patient.repository;
+
+import com.hospital.benchmarks.Fixtures;
+import com.hospital.patient.PatientServiceApplication;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.service.PatientImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Repository lookups against an embedded H2 holding ADULTS adults and a minor for every
+// fourth one. Keys cycle through a fixed sequence so every run reads the same rows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PatientRepositoryBenchmark {
+
+    private static final int ADULTS = 20_000;
+    private static final Pageable PAGE = PageRequest.of(0, 51);
+    private static final LocalDate ADULT_CUTOFF = Patient.adultCutoff(LocalDate.now());
+
+    private ConfigurableApplicationContext context;
+    private PatientRepository patientRepository;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Fixtures.start(PatientServiceApplication.class, "patient-bench", Map.of(
+                "patient.cache.enabled", "false",
+                "patient.search.rebuild-on-startup", "false"));
+        context.getBean(PatientImportService.class).importPatients(Fixtures.patients(ADULTS));
+        patientRepository = context.getBean(PatientRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Deterministic stride through the adults (37 is coprime with ADULTS)
+    private int nextAdult() {
+        next = (next + 37) % ADULTS;
+        return next;
+    }
+
+    @Benchmark
+    public Optional<PatientDto> findDtoById() {
+        return patientRepository.findDtoById(Fixtures.adultCin(nextAdult()));
+    }
+
+    @Benchmark
+    public Optional<PatientDto> findDtoByCin() {
+        return patientRepository.findDtoByCin(Fixtures.adultCin(nextAdult()));
+    }
+
+    @Benchmark
+    public Optional<PatientDto> findDtoByEmail() {
+        return patientRepository.findDtoByEmail("adult" + nextAdult() + "@example.com");
+    }
+
+    @Benchmark
+    public boolean existsByCin() {
+        return patientRepository.existsByCin(Fixtures.adultCin(nextAdult()));
+    }
+
+    @Benchmark
+    public List<PatientDto> findPageAfter() {
+        return patientRepository.findPageAfter(Fixtures.adultCin(nextAdult()), PAGE);
+    }
+
+    @Benchmark
+    public List<PatientDto> findMinorsPageAfter() {
+        return patientRepository.findMinorsPageAfter(ADULT_CUTOFF, "", PAGE);
+    }
+
+    @Benchmark
+    public List<PatientDto> findByParentCinPageAfter() {
+        return patientRepository.findByParentCinPageAfter(Fixtures.adultCin(nextAdult() & ~3), "", PAGE);
+    }
+}
@@ -0,0 +1,76 @@
+package com.hospital.patient.service;
+
+import com.hospital.benchmarks.Fixtures;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.entity.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// DTO/entity conversion, validation and the age check behind every create and update.
+// Lives in the service package to reach PatientService's package-private helpers, which
+// only read their arguments, so the service is used without a Spring context.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PatientMappingBenchmark {
+
+    private final PatientService patientService = new PatientService();
+
+    private PatientDto adult;
+    private PatientDto minor;
+    private Patient entity;
+    private LocalDate birthDate;
+
+    @Setup
+    public void setUp() {
+        List<PatientDto> patients = Fixtures.patients(1);
+        adult = patients.get(0);
+        minor = patients.get(1);
+        entity = patientService.convertToEntity(adult);
+        entity.setId(adult.getCin());
+        birthDate = adult.getDateNaissance();
+    }
+
+    @Benchmark
+    public PatientDto convertToDto() {
+        return patientService.convertToDto(entity);
+    }
+
+    @Benchmark
+    public Patient convertToEntity() {
+        return patientService.convertToEntity(adult);
+    }
+
+    @Benchmark
+    public void validateAdult(Blackhole blackhole) {
+        patientService.validatePatientData(adult);
+        blackhole.consume(adult);
+    }
+
+    @Benchmark
+    public void validateMinor(Blackhole blackhole) {
+        patientService.validatePatientData(minor);
+        blackhole.consume(minor);
+    }
+
+    @Benchmark
+    public boolean isMinor() {
+        return patientService.isMinor(birthDate);
+    }
+}
@@ -0,0 +1,113 @@
+package com.hospital.patient.service;
+
+import com.hospital.benchmarks.Fixtures;
+import com.hospital.patient.PatientServiceApplication;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.entity.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity hydration + convertToDto (the read path before projections) versus the
+// constructor-expression projections behind the paged listings, PAGE_SIZE rows a call.
+// Allocation per call is the point, so run it with the GC profiler:
+//   mvn -pl benchmarks exec:exec@jmh -Djmh.args="PatientProjection -prof gc"
+// and compare gc.alloc.rate.norm (bytes/op) next to the time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PatientProjectionBenchmark {
+
+    private static final int ADULTS = 5_000;
+    private static final int PAGE_SIZE = 500;
+
+    private static final String ALL = "SELECT p FROM Patient p WHERE p.id > :afterId ORDER BY p.id";
+    private static final String MINORS = "SELECT p FROM Patient p WHERE p.isMinor = true AND p.id > :afterId ORDER BY p.id";
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Fixtures.start(PatientServiceApplication.class, "patient-projection-bench", Map.of(
+                "patient.cache.enabled", "false",
+                "patient.search.rebuild-on-startup", "false",
+                "patient.pagination.max-size", Integer.toString(PAGE_SIZE)));
+        context.getBean(PatientImportService.class).importPatients(Fixtures.patients(ADULTS));
+        patientService = context.getBean(PatientService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        // Both sides must read the same rows for the comparison to mean anything
+        if (!ids(entityAllPatients()).equals(ids(projectedAllPatients()))
+                || !ids(entityAllMinors()).equals(ids(projectedAllMinors()))) {
+            throw new IllegalStateException("Entity and projection pages differ");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PatientDto> entityAllPatients() {
+        return entityPage(ALL);
+    }
+
+    @Benchmark
+    public List<PatientDto> projectedAllPatients() {
+        return patientService.getAllPatients(null, PAGE_SIZE).getContent();
+    }
+
+    @Benchmark
+    public List<PatientDto> entityAllMinors() {
+        return entityPage(MINORS);
+    }
+
+    @Benchmark
+    public List<PatientDto> projectedAllMinors() {
+        return patientService.getAllMinors(null, PAGE_SIZE).getContent();
+    }
+
+    // Managed entities in a read-only transaction, copied to DTOs
+    private List<PatientDto> entityPage(String jpql) {
+        return readOnly.execute(status -> entityManager.createQuery(jpql, Patient.class)
+                .setParameter("afterId", "")
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList()
+                .stream()
+                .limit(PAGE_SIZE)
+                .map(patientService::convertToDto)
+                .collect(Collectors.toList()));
+    }
+
+    private static List<String> ids(List<PatientDto> page) {
+        return page.stream().map(PatientDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,4 @@
+package com.hospital.benchmarks.jmh_generated;
+public class JsonSerializationBenchmark_jmhType extends JsonSerializationBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.hospital.benchmarks.jmh_generated;
+public class WireFormatBenchmark_jmhType extends WireFormatBenchmark_jmhType_B3 {
+}
+
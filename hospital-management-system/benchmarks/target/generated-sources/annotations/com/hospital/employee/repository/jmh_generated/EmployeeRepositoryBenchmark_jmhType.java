@@ -0,0 +1,4 @@
+package com.hospital.employee.repository.jmh_generated;
+public class EmployeeRepositoryBenchmark_jmhType extends EmployeeRepositoryBenchmark_jmhType_B3 {
+}
+
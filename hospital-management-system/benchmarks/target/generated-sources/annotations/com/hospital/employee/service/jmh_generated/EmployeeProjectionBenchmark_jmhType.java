@@ -0,0 +1,4 @@
+package com.hospital.employee.service.jmh_generated;
+public class EmployeeProjectionBenchmark_jmhType extends EmployeeProjectionBenchmark_jmhType_B3 {
+}
+
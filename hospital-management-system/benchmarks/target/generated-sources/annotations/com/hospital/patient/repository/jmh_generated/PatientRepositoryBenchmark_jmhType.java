@@ -0,0 +1,4 @@
+package com.hospital.patient.repository.jmh_generated;
+public class PatientRepositoryBenchmark_jmhType extends PatientRepositoryBenchmark_jmhType_B3 {
+}
+
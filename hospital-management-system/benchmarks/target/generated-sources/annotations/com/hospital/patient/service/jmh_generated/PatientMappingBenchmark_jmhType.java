@@ -0,0 +1,4 @@
+package com.hospital.patient.service.jmh_generated;
+public class PatientMappingBenchmark_jmhType extends PatientMappingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.hospital.patient.service.jmh_generated;
+public class PatientProjectionBenchmark_jmhType extends PatientProjectionBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,84 @@
+package com.hospital.common.monitoring;
+
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// GET /actuator/latency: the current latency distribution of every route and status
+// (percentiles over the recent window, lifetime count, mean and max, SLO bucket) and
+// each route's SLO standing with its burn rates. All times are in milliseconds.
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final LatencyRecorder recorder;
+
+    public LatencyEndpoint(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> latency() {
+        List<LatencyRecorder.Route> routes = new ArrayList<>(recorder.routes());
+        routes.sort(Comparator.comparing(LatencyRecorder.Route::getUri).thenComparing(LatencyRecorder.Route::getMethod));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (LatencyRecorder.Route route : routes) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("method", route.getMethod());
+            entry.put("uri", route.getUri());
+            entry.put("slo", slo(route));
+            Map<String, Object> statuses = new LinkedHashMap<>();
+            route.snapshots().forEach((status, snapshot) -> statuses.put(status.toString(), distribution(snapshot)));
+            entry.put("statuses", statuses);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private Map<String, Object> slo(LatencyRecorder.Route route) {
+        Map<String, Object> slo = new LinkedHashMap<>();
+        slo.put("thresholdMs", route.getThreshold().toMillis());
+        slo.put("objective", route.getObjective());
+        slo.put("good", route.getGood());
+        slo.put("bad", route.getBad());
+        Map<String, Double> burnRates = new LinkedHashMap<>();
+        for (Duration window : recorder.getBurnRateWindows()) {
+            burnRates.put(LatencyRecorder.format(window), route.burnRate(window));
+        }
+        slo.put("burnRate", burnRates);
+        return slo;
+    }
+
+    private Map<String, Object> distribution(HistogramSnapshot snapshot) {
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        distribution.put("count", snapshot.count());
+        distribution.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        distribution.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            percentiles.put("p" + label(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        distribution.put("percentilesMs", percentiles);
+        // Cumulative count under the SLO threshold (the only bucket configured)
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            distribution.put("withinThreshold", (long) bucket.count());
+        }
+        return distribution;
+    }
+
+    // 0.5 -> "50", 0.999 -> "999"
+    private static String label(double percentile) {
+        return BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros().toPlainString().replace(".", "");
+    }
+}
@@ -0,0 +1,243 @@
+package com.hospital.common.monitoring;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency distribution per route (method + URI pattern) and status code, published as the
+// http.server.latency timer with client-side p50/p95/p99/p999 and SLO buckets, plus an
+// SLO per route: http.server.slo.requests counts good and bad requests (slower than the
+// route's threshold, or 5xx) and http.server.slo.burn.rate gives how fast the error budget
+// is being spent over each window (1 = exactly on budget).
+//
+// record() is on every request's path and does not allocate once a series exists: routes
+// are found with get() on the handler's URI pattern string and a constant method name,
+// timers sit in an array indexed by status code, and Micrometer records into preallocated
+// HdrHistogram-based buffers.
+public class LatencyRecorder {
+
+    static final double[] PERCENTILES = {0.5, 0.95, 0.99, 0.999};
+
+    private static final int STATUS_CODES = 600;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration defaultThreshold;
+    private final Map<String, Duration> routeThresholds;
+    private final double objective;
+    private final List<Duration> burnRateWindows;
+    private final Duration sampleInterval;
+    private final Duration expiry;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Route>> routes = new ConcurrentHashMap<>();
+
+    public LatencyRecorder(MeterRegistry meterRegistry, Duration defaultThreshold, Map<String, Duration> routeThresholds,
+                           double objective, List<Duration> burnRateWindows, Duration sampleInterval,
+                           Duration expiry) {
+        if (objective <= 0 || objective >= 1) {
+            throw new IllegalArgumentException("SLO objective must be between 0 and 1, was " + objective);
+        }
+        this.meterRegistry = meterRegistry;
+        this.defaultThreshold = defaultThreshold;
+        this.routeThresholds = routeThresholds;
+        this.objective = objective;
+        this.burnRateWindows = burnRateWindows;
+        this.sampleInterval = sampleInterval;
+        this.expiry = expiry;
+    }
+
+    public void record(String method, String uri, int status, long nanos) {
+        route(canonical(method), uri).record(status, nanos);
+    }
+
+    // Takes the SLO counters' sample for the burn-rate windows
+    @Scheduled(fixedRateString = "${hospital.latency.slo.sample-interval-ms:10000}")
+    public void sample() {
+        for (Route route : routes()) {
+            route.sample();
+        }
+    }
+
+    public Collection<Route> routes() {
+        List<Route> all = new ArrayList<>();
+        routes.values().forEach(byMethod -> all.addAll(byMethod.values()));
+        return all;
+    }
+
+    public List<Duration> getBurnRateWindows() {
+        return burnRateWindows;
+    }
+
+    private Route route(String method, String uri) {
+        // get() first: computeIfAbsent's capturing lambda would allocate on every call
+        ConcurrentMap<String, Route> byMethod = routes.get(uri);
+        if (byMethod == null) {
+            byMethod = routes.computeIfAbsent(uri, key -> new ConcurrentHashMap<>());
+        }
+        Route route = byMethod.get(method);
+        if (route == null) {
+            route = byMethod.computeIfAbsent(method, key -> new Route(key, uri));
+        }
+        return route;
+    }
+
+    public final class Route {
+        private final String method;
+        private final String uri;
+        private final Duration threshold;
+        private final long thresholdNanos;
+        private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(STATUS_CODES);
+        private final LongAdder good = new LongAdder();
+        private final LongAdder bad = new LongAdder();
+
+        // Cumulative (good, bad) at each sample, oldest overwritten; guarded by this
+        private final long[] goodSamples;
+        private final long[] badSamples;
+        private int samples;
+
+        private Route(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+            this.threshold = routeThresholds.getOrDefault(method + " " + uri, defaultThreshold);
+            this.thresholdNanos = threshold.toNanos();
+            long longestWindow = burnRateWindows.stream().mapToLong(Duration::toMillis).max().orElse(0);
+            int slots = (int) (longestWindow / sampleInterval.toMillis()) + 1;
+            this.goodSamples = new long[slots];
+            this.badSamples = new long[slots];
+
+            FunctionCounter.builder("http.server.slo.requests", good, LongAdder::sum)
+                    .description("Requests within the route's latency SLO")
+                    .tags("method", method, "uri", uri, "outcome", "good")
+                    .register(meterRegistry);
+            FunctionCounter.builder("http.server.slo.requests", bad, LongAdder::sum)
+                    .description("Requests over the route's latency threshold or failed with a 5xx")
+                    .tags("method", method, "uri", uri, "outcome", "bad")
+                    .register(meterRegistry);
+            for (Duration window : burnRateWindows) {
+                Gauge.builder("http.server.slo.burn.rate", this, route -> route.burnRate(window))
+                        .description("Error budget burn rate over the window (1 spends it exactly over the SLO period)")
+                        .tags("method", method, "uri", uri, "window", format(window))
+                        .register(meterRegistry);
+            }
+        }
+
+        private void record(int status, long nanos) {
+            timer(status).record(nanos, TimeUnit.NANOSECONDS);
+            if (nanos > thresholdNanos || status >= 500) {
+                bad.increment();
+            } else {
+                good.increment();
+            }
+        }
+
+        private Timer timer(int status) {
+            int index = status >= 0 && status < STATUS_CODES ? status : 0;
+            Timer timer = timers.get(index);
+            if (timer == null) {
+                timer = Timer.builder("http.server.latency")
+                        .description("Request latency per route and status")
+                        .tags("method", method, "uri", uri, "status", Integer.toString(status))
+                        .publishPercentiles(PERCENTILES)
+                        .percentilePrecision(2)
+                        .serviceLevelObjectives(threshold)
+                        .distributionStatisticExpiry(expiry)
+                        .register(meterRegistry);
+                // register() returns the existing timer if another thread won the race
+                timers.set(index, timer);
+            }
+            return timer;
+        }
+
+        private synchronized void sample() {
+            int slot = samples++ % goodSamples.length;
+            goodSamples[slot] = good.sum();
+            badSamples[slot] = bad.sum();
+        }
+
+        // Bad ratio since the sample one window ago (or the oldest kept), over the error budget
+        public synchronized double burnRate(Duration window) {
+            if (samples == 0) {
+                return 0;
+            }
+            int back = (int) Math.min(window.toMillis() / sampleInterval.toMillis(),
+                    Math.min(samples - 1, goodSamples.length - 1));
+            int first = (samples - 1 - back) % goodSamples.length;
+            long goodDelta = good.sum() - goodSamples[first];
+            long badDelta = bad.sum() - badSamples[first];
+            long total = goodDelta + badDelta;
+            return total == 0 ? 0 : (double) badDelta / total / (1 - objective);
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public double getObjective() {
+            return objective;
+        }
+
+        public long getGood() {
+            return good.sum();
+        }
+
+        public long getBad() {
+            return bad.sum();
+        }
+
+        // Snapshot of each status code seen on this route
+        public Map<Integer, HistogramSnapshot> snapshots() {
+            Map<Integer, HistogramSnapshot> snapshots = new TreeMap<>();
+            for (int status = 0; status < STATUS_CODES; status++) {
+                Timer timer = timers.get(status);
+                if (timer != null) {
+                    snapshots.put(status, timer.takeSnapshot());
+                }
+            }
+            return snapshots;
+        }
+    }
+
+    // Constant strings for the map lookup, whatever instance the container handed out
+    private static String canonical(String method) {
+        switch (method) {
+            case "GET": return "GET";
+            case "POST": return "POST";
+            case "PUT": return "PUT";
+            case "PATCH": return "PATCH";
+            case "DELETE": return "DELETE";
+            case "HEAD": return "HEAD";
+            case "OPTIONS": return "OPTIONS";
+            default: return "OTHER";
+        }
+    }
+
+    static String format(Duration window) {
+        long seconds = window.getSeconds();
+        if (seconds % 3600 == 0) {
+            return seconds / 3600 + "h";
+        }
+        return seconds % 60 == 0 ? seconds / 60 + "m" : seconds + "s";
+    }
+}
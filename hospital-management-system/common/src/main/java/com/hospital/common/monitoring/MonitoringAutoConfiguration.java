@@ -0,0 +1,57 @@
+package com.hospital.common.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Monitoring shared by the services: per-route latency histograms and SLO burn rates (see
+// LatencyRecorder), served by the "latency" actuator endpoint, and in virtual-thread mode
+// the pinning monitor. Properties are under hospital.latency and hospital.virtual-threads.
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Import(VirtualThreadPinningMonitor.class)
+public class MonitoringAutoConfiguration {
+
+    @Bean
+    public LatencyRecorder latencyRecorder(
+            MeterRegistry meterRegistry, Environment environment,
+            @Value("${hospital.latency.slo.threshold:300ms}") Duration threshold,
+            @Value("${hospital.latency.slo.objective:0.99}") double objective,
+            @Value("${hospital.latency.slo.burn-rate-windows:5m,1h}") List<Duration> burnRateWindows,
+            @Value("${hospital.latency.slo.sample-interval-ms:10000}") long sampleIntervalMs,
+            @Value("${hospital.latency.expiry:1m}") Duration expiry) {
+        // Keys are "<METHOD> <pattern>", e.g. "[GET /api/patients/search]" in YAML
+        Map<String, Duration> routeThresholds = Binder.get(environment)
+                .bind("hospital.latency.slo.routes", Bindable.mapOf(String.class, Duration.class))
+                .orElse(Map.of());
+        return new LatencyRecorder(meterRegistry, threshold, routeThresholds, objective, burnRateWindows,
+                Duration.ofMillis(sampleIntervalMs), expiry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LatencyFilter> latencyFilter(LatencyRecorder latencyRecorder) {
+        FilterRegistrationBean<LatencyFilter> registration = new FilterRegistrationBean<>(
+                new LatencyFilter(latencyRecorder));
+        // Outermost, so the time includes every other filter
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+
+    @Bean
+    public LatencyEndpoint latencyEndpoint(LatencyRecorder latencyRecorder) {
+        return new LatencyEndpoint(latencyRecorder);
+    }
+}
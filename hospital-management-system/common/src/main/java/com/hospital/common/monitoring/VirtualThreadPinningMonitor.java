@@ -0,0 +1,97 @@
+package com.hospital.common.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// In virtual-thread mode, reports every virtual thread that blocks while pinned to its
+// carrier (synchronized block or native frame around blocking I/O such as a JDBC call)
+// through the JDK's jdk.VirtualThreadPinned JFR event. Each pinning call site is logged
+// once with its stack; every occurrence counts in jvm.threads.virtual.pinned.
+//
+// The build targets Java 17, where jdk.VirtualThreadPinned does not exist and Spring Boot
+// ignores spring.threads.virtual.enabled; the monitor only starts on a Java 21+ runtime.
+@ConditionalOnJava(JavaVersion.TWENTY_ONE)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hospital.virtual-threads.pinned-threshold:20ms}")
+    private Duration threshold;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    private Counter pinned;
+    private RecordingStream recording;
+
+    @PostConstruct
+    void start() {
+        pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        recording.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        // The top frames are the JDK's parking code; the first application or driver frame names the site
+        String site = frames.stream()
+                .filter(frame -> !isJdkFrame(frame))
+                .findFirst()
+                .map(this::describe)
+                .orElse("unknown");
+        if (reportedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), site,
+                    frames.stream()
+                            .filter(frame -> !isJdkFrame(frame))
+                            .limit(LOGGED_FRAMES)
+                            .map(this::describe)
+                            .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
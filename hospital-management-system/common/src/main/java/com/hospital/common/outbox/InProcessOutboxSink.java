@@ -0,0 +1,29 @@
+package com.hospital.common.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+// Republishes relayed messages as application events (@EventListener OutboxMessage), for
+// consumers inside this service and for tests. Off unless enabled: with no listener the
+// relay would delete events nobody received, while without any sink they wait in the outbox
+@ConditionalOnProperty(name = "hospital.outbox.sinks.in-process.enabled", havingValue = "true")
+public class InProcessOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String getName() {
+        return "in-process";
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            eventPublisher.publishEvent(message);
+        }
+    }
+}
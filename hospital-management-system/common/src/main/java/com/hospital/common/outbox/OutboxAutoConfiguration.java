@@ -0,0 +1,19 @@
+package com.hospital.common.outbox;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+// Transactional outbox shared by the services: OutboxWriter for the services' change
+// listeners, OutboxRelay and the sinks. Each service owns the outbox_events and
+// outbox_partitions tables in its own migrations. Properties are under hospital.outbox.
+//
+// Registers this package with JPA (entities and repositories) next to the application's
+// own, hence before the JPA auto-configurations read the package list.
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@AutoConfigurationPackage
+@Import({OutboxWriter.class, OutboxRelay.class, InProcessOutboxSink.class, FileOutboxSink.class})
+public class OutboxAutoConfiguration {
+}
@@ -0,0 +1,23 @@
+package com.hospital.common.outbox;
+
+import java.time.LocalDateTime;
+
+// Events waiting in one outbox partition, and when the oldest of them was written
+public class OutboxBacklog {
+
+    private final int partitionNo;
+    private final long pending;
+    private final LocalDateTime oldest;
+
+    public OutboxBacklog(int partitionNo, long pending, LocalDateTime oldest) {
+        this.partitionNo = partitionNo;
+        this.pending = pending;
+        this.oldest = oldest;
+    }
+
+    public int getPartitionNo() { return partitionNo; }
+
+    public long getPending() { return pending; }
+
+    public LocalDateTime getOldest() { return oldest; }
+}
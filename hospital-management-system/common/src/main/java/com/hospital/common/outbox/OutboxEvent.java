@@ -0,0 +1,60 @@
+package com.hospital.common.outbox;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A change waiting in the outbox. Rows are inserted by OutboxWriter with a JDBC batch
+// and only read and deleted through JPA.
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    
+    // Rows in outbox_partitions (each service's outbox migration)
+    public static final int PARTITIONS = 16;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+    
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+    
+    @Column(name = "event_type", nullable = false, length = 16)
+    private String eventType;
+    
+    @Column(name = "partition_no", nullable = false)
+    private Integer partitionNo;
+    
+    // JSON; null when the event carries no state (deletes)
+    @Column(length = 8000)
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public OutboxEvent() {}
+    
+    // Same key, same partition: String.hashCode is stable across JVMs
+    public static int partitionOf(String aggregateId) {
+        return Math.floorMod(aggregateId.hashCode(), PARTITIONS);
+    }
+    
+    // Getters
+    public Long getId() { return id; }
+    
+    public String getAggregateType() { return aggregateType; }
+    
+    public String getAggregateId() { return aggregateId; }
+    
+    public String getEventType() { return eventType; }
+    
+    public Integer getPartitionNo() { return partitionNo; }
+    
+    public String getPayload() { return payload; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
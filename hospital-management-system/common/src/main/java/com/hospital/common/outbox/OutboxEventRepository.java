@@ -0,0 +1,20 @@
+package com.hospital.common.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Oldest pending events of one partition (idx_outbox_events_partition)
+    List<OutboxEvent> findByPartitionNoOrderById(Integer partitionNo, Pageable pageable);
+    
+    // Pending events and the oldest one's age per partition, in one pass over the index
+    @Query("SELECT new com.hospital.common.outbox.OutboxBacklog(e.partitionNo, COUNT(e), MIN(e.createdAt)) " +
+           "FROM OutboxEvent e GROUP BY e.partitionNo")
+    List<OutboxBacklog> findBacklog();
+}
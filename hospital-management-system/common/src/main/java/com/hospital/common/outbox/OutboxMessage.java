@@ -0,0 +1,41 @@
+package com.hospital.common.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+// An outbox event as handed to the sinks. "id" increases with every event of the same
+// aggregate and is the same on redelivery, so consumers can drop what they have seen.
+public class OutboxMessage {
+
+    private final long id;
+    private final String aggregateType;
+    private final String aggregateId;
+    private final String type;
+    private final String payload;
+    private final LocalDateTime createdAt;
+
+    public OutboxMessage(long id, String aggregateType, String aggregateId, String type, String payload,
+                         LocalDateTime createdAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() { return id; }
+
+    public String getAggregateType() { return aggregateType; }
+
+    public String getAggregateId() { return aggregateId; }
+
+    public String getType() { return type; }
+
+    // JSON document, written as is
+    @JsonRawValue
+    public String getPayload() { return payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
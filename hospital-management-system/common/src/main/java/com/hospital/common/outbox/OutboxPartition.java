@@ -0,0 +1,46 @@
+package com.hospital.common.outbox;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One slice of the outbox; lockedBy/lockedUntil is the lease of the node relaying it
+@Entity
+@Table(name = "outbox_partitions")
+public class OutboxPartition {
+    
+    @Id
+    @Column(name = "partition_no")
+    private Integer partitionNo;
+    
+    // Running total of events relayed from this partition
+    @Column(nullable = false)
+    private Long relayed;
+    
+    @Column(name = "relayed_at")
+    private LocalDateTime relayedAt;
+    
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+    
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+    
+    // Constructors
+    public OutboxPartition() {}
+    
+    // Getters and Setters
+    public Integer getPartitionNo() { return partitionNo; }
+    public void setPartitionNo(Integer partitionNo) { this.partitionNo = partitionNo; }
+    
+    public Long getRelayed() { return relayed; }
+    public void setRelayed(Long relayed) { this.relayed = relayed; }
+    
+    public LocalDateTime getRelayedAt() { return relayedAt; }
+    public void setRelayedAt(LocalDateTime relayedAt) { this.relayedAt = relayedAt; }
+    
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+    
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+}
@@ -0,0 +1,34 @@
+package com.hospital.common.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxPartitionRepository extends JpaRepository<OutboxPartition, Integer> {
+    
+    // Take the partition's lease unless another node holds it; returns 0 when not acquired.
+    // Committed on its own, so no row lock is held while the batch is with the sinks.
+    @Modifying
+    @Query("UPDATE OutboxPartition p SET p.lockedBy = :owner, p.lockedUntil = :lockedUntil " +
+           "WHERE p.partitionNo = :partitionNo AND (p.lockedUntil IS NULL OR p.lockedUntil < :now)")
+    int acquire(@Param("partitionNo") Integer partitionNo, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+    
+    // Record a delivered batch and give the lease back; 0 when it had expired and been taken over
+    @Modifying
+    @Query("UPDATE OutboxPartition p SET p.relayed = p.relayed + :count, p.relayedAt = :now, " +
+           "p.lockedBy = NULL, p.lockedUntil = NULL WHERE p.partitionNo = :partitionNo AND p.lockedBy = :owner")
+    int complete(@Param("partitionNo") Integer partitionNo, @Param("owner") String owner,
+                 @Param("count") long count, @Param("now") LocalDateTime now);
+    
+    // Give the lease back after a failed batch, leaving it at the head of the partition
+    @Modifying
+    @Query("UPDATE OutboxPartition p SET p.lockedBy = NULL, p.lockedUntil = NULL " +
+           "WHERE p.partitionNo = :partitionNo AND p.lockedBy = :owner")
+    int release(@Param("partitionNo") Integer partitionNo, @Param("owner") String owner);
+}
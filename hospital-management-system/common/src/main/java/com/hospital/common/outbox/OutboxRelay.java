@@ -0,0 +1,245 @@
+package com.hospital.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Moves outbox events to the sinks. Each poll reads the backlog per partition (one GROUP BY)
+// and relays the partitions that have events, a batch at a time: lease the partition (a
+// short transaction of its own), read its oldest batch-size events, hand them to every
+// sink, then delete them and give the lease back in a second short transaction. No row
+// lock or connection is held while a sink works, however slow it is.
+//
+// A batch is deleted only after all sinks took it, and a failed batch stays at the head of
+// its partition until a later poll delivers it: at least once, and in order per aggregate
+// (one partition per aggregate, one node per partition at a time). Other partitions go on.
+// A sink slower than the lease lets another node take the partition over and send the
+// same batch again, which at-least-once consumers already expect.
+//
+// Polls run on a thread of their own ("outbox-relay"), not on the shared @Scheduled pool,
+// so a slow sink cannot hold up the services' other scheduled jobs, nor they the relay.
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPartitionRepository outboxPartitionRepository;
+
+    // Without any sink nothing is relayed and events wait in the outbox
+    @Autowired(required = false)
+    private List<OutboxSink> sinks = List.of();
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hospital.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hospital.outbox.relay.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${hospital.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    // How long a node may keep a partition for one batch before another may take it over
+    @Value("${hospital.outbox.relay.lease:30s}")
+    private Duration lease;
+
+    // Lease holder name of this relay; unique per process
+    private final String owner = UUID.randomUUID().toString();
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong backlogAgeMillis = new AtomicLong();
+    private Counter relayed;
+    private Counter failures;
+    private Timer batches;
+    private Timer lag;
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    void init() {
+        relayed = Counter.builder("outbox.relayed")
+                .description("Outbox events delivered to every sink")
+                .register(meterRegistry);
+        failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches that failed and will be retried")
+                .register(meterRegistry);
+        batches = Timer.builder("outbox.relay.batch")
+                .description("Time to deliver and remove one outbox batch")
+                .register(meterRegistry);
+        lag = Timer.builder("outbox.lag")
+                .description("Time from writing an outbox event to its delivery")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("outbox.backlog", backlog);
+        meterRegistry.more().timeGauge("outbox.backlog.age", List.of(), backlogAgeMillis,
+                TimeUnit.MILLISECONDS, AtomicLong::doubleValue);
+        log.info("Outbox sinks: {}", sinks.stream().map(OutboxSink::getName).collect(Collectors.toList()));
+        if (enabled && !sinks.isEmpty()) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "outbox-relay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Lets the batch in flight finish, so its lease is given back rather than left to expire
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (poller != null) {
+            poller.shutdown();
+            poller.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // An exception escaping here would cancel every later poll
+    void poll() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay pass failed, will retry", e);
+        }
+    }
+
+    // One pass over the partitions with pending events; returns the number of events relayed
+    public long relay() {
+        List<OutboxBacklog> pending = outboxEventRepository.findBacklog();
+        recordBacklog(pending);
+        long total = 0;
+        for (OutboxBacklog partition : pending) {
+            int delivered;
+            do {
+                delivered = relayBatch(partition.getPartitionNo());
+                total += delivered;
+            } while (delivered == batchSize);
+        }
+        return total;
+    }
+
+    // Relays one batch of the partition; 0 when it is empty, leased elsewhere or failed
+    private int relayBatch(int partitionNo) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDateTime leasedAt = LocalDateTime.now();
+        Integer acquired;
+        try {
+            acquired = transaction.execute(status ->
+                    outboxPartitionRepository.acquire(partitionNo, owner, leasedAt, leasedAt.plus(lease)));
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox partition {}: could not take the lease, will retry", partitionNo, e);
+            return 0;
+        }
+        if (acquired == null || acquired == 0) {
+            return 0;
+        }
+        boolean completed = false;
+        try {
+            List<OutboxEvent> events = outboxEventRepository.findByPartitionNoOrderById(
+                    partitionNo, PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<OutboxMessage> messages = toMessages(events);
+            deliver(messages);
+            List<Long> ids = messages.stream().map(OutboxMessage::getId).collect(Collectors.toList());
+            LocalDateTime now = LocalDateTime.now();
+            Integer kept = transaction.execute(status -> {
+                outboxEventRepository.deleteAllByIdInBatch(ids);
+                return outboxPartitionRepository.complete(partitionNo, owner, ids.size(), now);
+            });
+            completed = true;
+            if (kept == null || kept == 0) {
+                log.warn("Outbox partition {}: delivery outlasted the {} lease; the batch may have gone out twice",
+                        partitionNo, lease);
+            }
+            sample.stop(batches);
+            relayed.increment(messages.size());
+            for (OutboxMessage message : messages) {
+                lag.record(Duration.between(message.getCreatedAt(), now));
+            }
+            return messages.size();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox partition {}: batch not delivered, will retry", partitionNo, e);
+            return 0;
+        } finally {
+            if (!completed) {
+                release(transaction, partitionNo);
+            }
+        }
+    }
+
+    // A lease that cannot be given back simply expires
+    private void release(TransactionTemplate transaction, int partitionNo) {
+        try {
+            transaction.executeWithoutResult(status -> outboxPartitionRepository.release(partitionNo, owner));
+        } catch (RuntimeException e) {
+            log.warn("Outbox partition {}: lease not given back, it expires in {}", partitionNo, lease, e);
+        }
+    }
+
+    private void deliver(List<OutboxMessage> messages) {
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(messages);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink " + sink.getName() + " failed", e);
+            }
+        }
+    }
+
+    private List<OutboxMessage> toMessages(List<OutboxEvent> events) {
+        List<OutboxMessage> messages = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            messages.add(new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                    event.getEventType(), event.getPayload(), event.getCreatedAt()));
+        }
+        return messages;
+    }
+
+    // Backlog as of the start of the pass: events waiting, and how long the oldest has
+    private void recordBacklog(List<OutboxBacklog> pending) {
+        LocalDateTime now = LocalDateTime.now();
+        long count = 0;
+        LocalDateTime oldest = now;
+        for (OutboxBacklog partition : pending) {
+            count += partition.getPending();
+            if (partition.getOldest() != null && partition.getOldest().isBefore(oldest)) {
+                oldest = partition.getOldest();
+            }
+        }
+        backlog.set(count);
+        backlogAgeMillis.set(Duration.between(oldest, now).toMillis());
+    }
+}
@@ -0,0 +1,16 @@
+package com.hospital.common.outbox;
+
+import java.util.List;
+
+// Destination of relayed outbox events; every OutboxSink bean gets every event.
+//
+// Delivery is at least once: a batch is redelivered when this or another sink throws,
+// or when the relay dies before recording it, so consumers must be idempotent (the
+// message ID identifies an event). Messages of one aggregate always arrive in order.
+public interface OutboxSink {
+
+    String getName();
+
+    // Returns once the batch is durably handed over; throwing makes the relay retry it
+    void deliver(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,75 @@
+package com.hospital.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes outbox events in the transaction making the change, so the two commit or roll
+// back together. Each service appends its own changes (PatientOutboxListener,
+// EmployeeOutboxListener) from a synchronous listener of its change event.
+//
+// Events are collected during the transaction and inserted with one JDBC batch just before
+// it commits: pending JPA changes are flushed first, so the changed rows are locked before
+// the outbox IDs are drawn and the IDs of one aggregate follow its commit order. (Hibernate
+// does not batch inserts with IDENTITY keys, hence JDBC.)
+public class OutboxWriter {
+
+    private static final String INSERT = "INSERT INTO outbox_events " +
+            "(aggregate_type, aggregate_id, event_type, partition_no, payload, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void append(String aggregateType, String aggregateId, String eventType, Object payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Outbox events must be written in the transaction of the change");
+        }
+        String json;
+        try {
+            json = payload != null ? objectMapper.writeValueAsString(payload) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload of " + aggregateType + " " + aggregateId, e);
+        }
+        pendingEvents().rows.add(new Object[] {
+                aggregateType, aggregateId, eventType, OutboxEvent.partitionOf(aggregateId), json, LocalDateTime.now()
+        });
+    }
+
+    // The current transaction's pending events (suspended along with it by REQUIRES_NEW)
+    private PendingEvents pendingEvents() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents) {
+                return (PendingEvents) synchronization;
+            }
+        }
+        PendingEvents pending = new PendingEvents();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private final class PendingEvents implements TransactionSynchronization {
+        private final List<Object[]> rows = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hospital.common.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LatencyRecorderTest {
+
+    private static final String SEARCH = "/api/patients/search";
+    private static final String BY_ID = "/api/patients/{id}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private LatencyRecorder recorder;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new LatencyRecorder(meterRegistry, Duration.ofMillis(100),
+                Map.of("GET " + SEARCH, Duration.ofMillis(500)), 0.99,
+                List.of(Duration.ofSeconds(30), Duration.ofMinutes(5)), Duration.ofSeconds(10), Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testRecordsPercentilesPerRouteAndStatus() {
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record("GET", BY_ID, 200, TimeUnit.MILLISECONDS.toNanos(i % 100 + 1));
+        }
+        recorder.record("GET", BY_ID, 404, TimeUnit.MILLISECONDS.toNanos(2));
+
+        Timer ok = meterRegistry.get("http.server.latency")
+                .tags("method", "GET", "uri", BY_ID, "status", "200").timer();
+        assertEquals(1000, ok.count());
+        assertEquals(1, meterRegistry.get("http.server.latency").tags("status", "404").timer().count());
+
+        ValueAtPercentile[] percentiles = ok.takeSnapshot().percentileValues();
+        assertEquals(4, percentiles.length);
+        assertEquals(50, percentiles[0].value(TimeUnit.MILLISECONDS), 3);
+        assertEquals(99, percentiles[2].value(TimeUnit.MILLISECONDS), 3);
+    }
+
+    @Test
+    public void testCountsGoodAndBadAgainstRouteThreshold() {
+        recorder.record("GET", BY_ID, 200, TimeUnit.MILLISECONDS.toNanos(50));
+        recorder.record("GET", BY_ID, 200, TimeUnit.MILLISECONDS.toNanos(150));
+        recorder.record("GET", BY_ID, 503, TimeUnit.MILLISECONDS.toNanos(5));
+        // Search has its own 500 ms threshold
+        recorder.record("GET", SEARCH, 200, TimeUnit.MILLISECONDS.toNanos(400));
+
+        assertEquals(1, meterRegistry.get("http.server.slo.requests")
+                .tags("uri", BY_ID, "outcome", "good").functionCounter().count());
+        assertEquals(2, meterRegistry.get("http.server.slo.requests")
+                .tags("uri", BY_ID, "outcome", "bad").functionCounter().count());
+        assertEquals(1, meterRegistry.get("http.server.slo.requests")
+                .tags("uri", SEARCH, "outcome", "good").functionCounter().count());
+    }
+
+    @Test
+    public void testBurnRateOverWindow() {
+        recorder.record("GET", BY_ID, 200, TimeUnit.MILLISECONDS.toNanos(1));
+        recorder.sample();
+        // 2% bad against a 1% budget: burning twice as fast as allowed
+        for (int i = 0; i < 98; i++) {
+            recorder.record("GET", BY_ID, 200, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        recorder.record("GET", BY_ID, 500, TimeUnit.MILLISECONDS.toNanos(1));
+        recorder.record("GET", BY_ID, 500, TimeUnit.MILLISECONDS.toNanos(1));
+        recorder.sample();
+
+        double burnRate = meterRegistry.get("http.server.slo.burn.rate")
+                .tags("uri", BY_ID, "window", "30s").gauge().value();
+        assertEquals(2.0, burnRate, 0.001);
+        assertEquals(2.0, meterRegistry.get("http.server.slo.burn.rate")
+                .tags("uri", BY_ID, "window", "5m").gauge().value(), 0.001);
+    }
+
+    @Test
+    public void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        // Distinct instances, as the container would hand them out per request
+        String method = new String("GET");
+        String uri = BY_ID;
+        for (int i = 0; i < 50_000; i++) {
+            recorder.record(method, uri, 200, 1_000_000 + i);
+        }
+
+        int iterations = 200_000;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            recorder.record(method, uri, 200, 1_000_000 + i);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Allow for the occasional histogram rotation, not for per-call garbage
+        assertTrue(allocated < iterations / 10, "Recording allocated " + allocated + " bytes for " + iterations + " calls");
+    }
+}
@@ -0,0 +1,111 @@
+package com.hospital.common.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every derived query (findBy*, existsBy*, ...) must filter on a column that leads some
+// index in the Flyway-managed schema, otherwise it would be a full table scan. Each service
+// runs it as a @DataJpaTest over its own repositories.
+public abstract class RepositoryIndexCoverage {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testDerivedQueriesAreCoveredByIndexes() throws Exception {
+        List<String> uncovered = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (Class<?> repository : repositories()) {
+                Class<?> entity = ResolvableType.forClass(repository).as(JpaRepository.class).resolveGeneric(0);
+                Set<String> leadingColumns = leadingIndexColumns(connection.getMetaData(), tableName(entity));
+                Set<String> namedQueries = namedQueries(entity);
+                for (Method method : repository.getDeclaredMethods()) {
+                    if (method.isDefault() || method.isAnnotationPresent(Query.class)
+                            || namedQueries.contains(entity.getSimpleName() + "." + method.getName())) {
+                        continue;
+                    }
+                    for (PartTree.OrPart orPart : new PartTree(method.getName(), entity)) {
+                        Part first = orPart.iterator().next();
+                        String column = columnName(entity, first.getProperty().getSegment());
+                        if (!leadingColumns.contains(column)) {
+                            uncovered.add(repository.getSimpleName() + "." + method.getName() + " (" + column + ")");
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(uncovered.isEmpty(), "Derived queries without a supporting index: " + uncovered);
+    }
+
+    protected abstract List<Class<?>> repositories();
+
+    // First column of every index (including primary and unique keys) on the table, lower-cased
+    private Set<String> leadingIndexColumns(DatabaseMetaData metaData, String table) throws Exception {
+        Set<String> columns = new HashSet<>();
+        for (String candidate : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet indexes = metaData.getIndexInfo(null, null, candidate, false, false)) {
+                while (indexes.next()) {
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && indexes.getString("COLUMN_NAME") != null) {
+                        columns.add(indexes.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        assertTrue(!columns.isEmpty(), "No indexes found for table " + table);
+        return columns;
+    }
+
+    // Methods backed by <Entity>.<method> named queries are not derived from their name
+    private Set<String> namedQueries(Class<?> entity) {
+        Set<String> names = new HashSet<>();
+        for (NamedQuery query : entity.getAnnotationsByType(NamedQuery.class)) {
+            names.add(query.name());
+        }
+        for (NamedNativeQuery query : entity.getAnnotationsByType(NamedNativeQuery.class)) {
+            names.add(query.name());
+        }
+        return names;
+    }
+
+    private String tableName(Class<?> entity) {
+        Table table = entity.getAnnotation(Table.class);
+        return table != null && !table.name().isEmpty() ? table.name() : snakeCase(entity.getSimpleName());
+    }
+
+    // Mirrors Spring Boot's default physical naming: explicit @Column name, otherwise snake_case
+    private String columnName(Class<?> entity, String property) throws NoSuchFieldException {
+        Field field = entity.getDeclaredField(property);
+        Column column = field.getAnnotation(Column.class);
+        if (column != null && !column.name().isEmpty()) {
+            return column.name().toLowerCase(Locale.ROOT);
+        }
+        return snakeCase(property);
+    }
+
+    private String snakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,10 +1,17 @@
 package com.hospital.employee.controller;
 
+import com.hospital.employee.dto.BatchGetResult;
+import com.hospital.employee.dto.CursorPage;
+import com.hospital.employee.dto.EmployeeChanges;
 import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.dto.HeadcountReport;
+import com.hospital.employee.service.ETags;
 import com.hospital.employee.service.EmployeeService;
+import com.hospital.employee.service.EmployeeSyncService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,19 +23,65 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private EmployeeSyncService employeeSyncService;
+
     @PostMapping
     public ResponseEntity<EmployeeDto> createEmployee(@RequestBody EmployeeDto dto) {
         return ResponseEntity.status(201).body(employeeService.createEmployee(dto));
     }
 
+    // Directory, keyset paginated (pass the previous page's "next" as cursor) and optionally
+    // filtered by departement, poste and/or name prefix (nom). 304 without reading the page
+    // when nothing changed since the client's If-None-Match.
     @GetMapping
-    public List<EmployeeDto> getAll() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<CursorPage<EmployeeDto>> getAll(@RequestParam(required = false) String departement,
+                                                         @RequestParam(required = false) String poste,
+                                                         @RequestParam(required = false) String nom,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size,
+                                                         WebRequest request) {
+        String etag = employeeService.getEmployeesETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPage<EmployeeDto> employees = employeeService.getEmployees(departement, poste, nom, cursor, size);
+        return ResponseEntity.ok().eTag(etag).body(employees);
+    }
+
+    // Delta sync: what changed since the previous response's token (no token: everything)
+    @GetMapping("/changes")
+    public ResponseEntity<EmployeeChanges> getChanges(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(employeeSyncService.getChanges(since));
+    }
+
+    // Type-ahead over names, matricules and emails, served from memory: ?q=dur&limit=10
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<EmployeeDto>> autocomplete(@RequestParam("q") String prefix,
+                                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(employeeService.autocomplete(prefix, limit));
+    }
+
+    // Headcount per department, per post and per post within each department
+    @GetMapping("/headcounts")
+    public ResponseEntity<HeadcountReport> getHeadcounts() {
+        return ResponseEntity.ok(employeeService.getHeadcounts());
+    }
+
+    // Resolve a list of matricules in one call; unknown ones come back under "missing"
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResult<EmployeeDto>> getByMatricules(@RequestBody List<String> matricules) {
+        return ResponseEntity.ok(employeeService.getEmployeesByMatricules(matricules));
     }
 
     @GetMapping("/{matricule}")
-    public ResponseEntity<EmployeeDto> getByMatricule(@PathVariable String matricule) {
-        return ResponseEntity.ok(employeeService.getEmployeeByMatricule(matricule));
+    public ResponseEntity<EmployeeDto> getByMatricule(@PathVariable String matricule, WebRequest request) {
+        EmployeeDto employee = employeeService.getEmployeeByMatricule(matricule);
+        String etag = ETags.of(employee);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(employee);
     }
 
     @DeleteMapping("/{matricule}")
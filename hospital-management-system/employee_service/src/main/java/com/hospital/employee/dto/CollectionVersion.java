@@ -0,0 +1,30 @@
+package com.hospital.employee.dto;
+
+import java.time.LocalDateTime;
+
+// Row count and latest update time of the employees, plus the latest deletion, from one
+// aggregate query
+public class CollectionVersion {
+
+    private final long count;
+    private final LocalDateTime lastUpdated;
+    private final LocalDateTime lastDeleted;
+
+    public CollectionVersion(long count, LocalDateTime lastUpdated, LocalDateTime lastDeleted) {
+        this.count = count;
+        this.lastUpdated = lastUpdated;
+        this.lastDeleted = lastDeleted;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public LocalDateTime getLastDeleted() {
+        return lastDeleted;
+    }
+}
@@ -0,0 +1,45 @@
+package com.hospital.employee.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; "next" is null on the last page
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private String next;
+
+    // Constructors
+    public CursorPage() {}
+
+    public CursorPage(List<T> content, String next) {
+        this.content = content;
+        this.size = content.size();
+        this.next = next;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
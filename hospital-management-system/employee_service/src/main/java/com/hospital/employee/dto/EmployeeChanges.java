@@ -0,0 +1,58 @@
+package com.hospital.employee.dto;
+
+import java.util.List;
+
+// Delta sync response. With reset = true, "changed" is the whole directory and replaces the
+// client's copy; otherwise it holds the employees created or updated since the request's
+// token and "deleted" the matricules removed since. Either way the client sends "token"
+// back next time. Applying a response twice is harmless.
+public class EmployeeChanges {
+
+    private List<EmployeeDto> changed;
+    private List<String> deleted;
+    private String token;
+    private boolean reset;
+
+    // Constructors
+    public EmployeeChanges() {}
+
+    public EmployeeChanges(List<EmployeeDto> changed, List<String> deleted, String token, boolean reset) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.token = token;
+        this.reset = reset;
+    }
+
+    // Getters and Setters
+    public List<EmployeeDto> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<EmployeeDto> changed) {
+        this.changed = changed;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+}
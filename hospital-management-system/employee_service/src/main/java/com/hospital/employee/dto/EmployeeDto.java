@@ -1,5 +1,7 @@
 package com.hospital.employee.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 
 public class EmployeeDto {
@@ -12,6 +14,10 @@ public class EmployeeDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Carried for ETags (see ETags); clients see it only through the ETag header
+    @JsonIgnore
+    private Long version;
+
     // Constructors
     public EmployeeDto() {}
 
@@ -27,6 +33,13 @@ public class EmployeeDto {
         this.updatedAt = updatedAt;
     }
 
+    public EmployeeDto(String matricule, String nom, String poste, String departement,
+                       String telephone, String email, LocalDateTime createdAt, LocalDateTime updatedAt,
+                       Long version) {
+        this(matricule, nom, poste, departement, telephone, email, createdAt, updatedAt);
+        this.version = version;
+    }
+
     // Getters and Setters
     public String getMatricule() {
         return matricule;
@@ -91,4 +104,12 @@ public class EmployeeDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
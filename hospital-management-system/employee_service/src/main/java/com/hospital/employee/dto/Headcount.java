@@ -0,0 +1,44 @@
+package com.hospital.employee.dto;
+
+// Number of employees in a department, a post, or a post within a department
+// (the dimension that is not grouped on is null)
+public class Headcount {
+
+    private String departement;
+    private String poste;
+    private long count;
+
+    // Constructors
+    public Headcount() {}
+
+    public Headcount(String departement, String poste, long count) {
+        this.departement = departement;
+        this.poste = poste;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getDepartement() {
+        return departement;
+    }
+
+    public void setDepartement(String departement) {
+        this.departement = departement;
+    }
+
+    public String getPoste() {
+        return poste;
+    }
+
+    public void setPoste(String poste) {
+        this.poste = poste;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
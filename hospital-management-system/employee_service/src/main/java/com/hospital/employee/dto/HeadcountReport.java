@@ -0,0 +1,56 @@
+package com.hospital.employee.dto;
+
+import java.util.List;
+
+// Headcounts per department, per post and per post within each department
+public class HeadcountReport {
+
+    private long total;
+    private List<Headcount> byDepartement;
+    private List<Headcount> byPoste;
+    private List<Headcount> byDepartementAndPoste;
+
+    // Constructors
+    public HeadcountReport() {}
+
+    public HeadcountReport(long total, List<Headcount> byDepartement, List<Headcount> byPoste,
+                           List<Headcount> byDepartementAndPoste) {
+        this.total = total;
+        this.byDepartement = byDepartement;
+        this.byPoste = byPoste;
+        this.byDepartementAndPoste = byDepartementAndPoste;
+    }
+
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<Headcount> getByDepartement() {
+        return byDepartement;
+    }
+
+    public void setByDepartement(List<Headcount> byDepartement) {
+        this.byDepartement = byDepartement;
+    }
+
+    public List<Headcount> getByPoste() {
+        return byPoste;
+    }
+
+    public void setByPoste(List<Headcount> byPoste) {
+        this.byPoste = byPoste;
+    }
+
+    public List<Headcount> getByDepartementAndPoste() {
+        return byDepartementAndPoste;
+    }
+
+    public void setByDepartementAndPoste(List<Headcount> byDepartementAndPoste) {
+        this.byDepartementAndPoste = byDepartementAndPoste;
+    }
+}
@@ -6,7 +6,14 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees",
+       uniqueConstraints = @UniqueConstraint(name = "uk_employees_email", columnNames = "email"),
+       indexes = {
+           @Index(name = "idx_employees_updated_at", columnList = "updated_at"),
+           @Index(name = "idx_employees_departement", columnList = "departement, matricule"),
+           @Index(name = "idx_employees_poste", columnList = "poste, matricule"),
+           @Index(name = "idx_employees_nom", columnList = "nom, matricule")
+       })
 public class Employee {
 
     @Id
@@ -27,13 +34,22 @@ public class Employee {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Set by EmployeeService from the database clock, which delta sync windows are read against
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic locking: every UPDATE checks and bumps it, and ETags are derived from it.
+    // Null until persisted, which also tells Spring Data that a new employee needs no merge.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
     }
 
     @PreUpdate
@@ -118,4 +134,12 @@ public class Employee {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
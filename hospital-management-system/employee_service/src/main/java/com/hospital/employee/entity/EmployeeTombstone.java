@@ -0,0 +1,66 @@
+package com.hospital.employee.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Trace of a deleted employee for delta sync clients
+@Entity
+@Table(name = "employee_tombstones",
+       indexes = @Index(name = "idx_employee_tombstones_deleted_at", columnList = "deleted_at"))
+public class EmployeeTombstone implements Persistable<String> {
+
+    @Id
+    @Column(name = "matricule", nullable = false)
+    private String matricule;
+
+    // From the database clock, like Employee.updatedAt
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Tombstones are only ever inserted: skip the merge's SELECT
+    @Transient
+    private boolean newEntity = true;
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+
+    // Constructors
+    public EmployeeTombstone() {}
+
+    public EmployeeTombstone(String matricule, LocalDateTime deletedAt) {
+        this.matricule = matricule;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public String getMatricule() {
+        return matricule;
+    }
+
+    public void setMatricule(String matricule) {
+        this.matricule = matricule;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String getId() {
+        return matricule;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+}
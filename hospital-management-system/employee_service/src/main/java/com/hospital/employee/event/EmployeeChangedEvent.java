@@ -0,0 +1,45 @@
+package com.hospital.employee.event;
+
+import com.hospital.employee.dto.EmployeeDto;
+
+// Published by EmployeeService inside the writing transaction; "before" is null for
+// creates and "after" is null for deletes. Listeners that must only see committed
+// data use @TransactionalEventListener.
+public class EmployeeChangedEvent {
+
+    public enum Type { CREATED, DELETED }
+
+    private final Type type;
+    private final EmployeeDto before;
+    private final EmployeeDto after;
+
+    private EmployeeChangedEvent(Type type, EmployeeDto before, EmployeeDto after) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static EmployeeChangedEvent created(EmployeeDto after) {
+        return new EmployeeChangedEvent(Type.CREATED, null, after);
+    }
+
+    public static EmployeeChangedEvent deleted(EmployeeDto before) {
+        return new EmployeeChangedEvent(Type.DELETED, before, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public EmployeeDto getBefore() {
+        return before;
+    }
+
+    public EmployeeDto getAfter() {
+        return after;
+    }
+
+    public String getMatricule() {
+        return after != null ? after.getMatricule() : before.getMatricule();
+    }
+}
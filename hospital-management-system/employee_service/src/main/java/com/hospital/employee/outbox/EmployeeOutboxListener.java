@@ -0,0 +1,25 @@
+package com.hospital.employee.outbox;
+
+import com.hospital.common.outbox.OutboxWriter;
+import com.hospital.employee.event.EmployeeChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Puts every employee change in the outbox, in the transaction making it (EmployeeService
+// publishes EmployeeChangedEvent for creates and deletes; the payload is the employee as
+// created, none for deletes).
+@Component
+public class EmployeeOutboxListener {
+
+    static final String EMPLOYEE = "employee";
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    // Synchronous: runs inside the publisher's transaction
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        outboxWriter.append(EMPLOYEE, event.getMatricule(), event.getType().name(), event.getAfter());
+    }
+}
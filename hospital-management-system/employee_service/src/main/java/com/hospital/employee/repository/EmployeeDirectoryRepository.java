@@ -0,0 +1,14 @@
+package com.hospital.employee.repository;
+
+import com.hospital.employee.dto.EmployeeDto;
+
+import java.util.List;
+
+// Directory listing with optional filters, mixed into EmployeeRepository
+public interface EmployeeDirectoryRepository {
+
+    // Up to limit employees after the given matricule, in matricule order. Null filters are
+    // left out of the query; nomPrefix matches names starting with it.
+    List<EmployeeDto> findDirectoryPage(String departement, String poste, String nomPrefix,
+                                        String afterMatricule, int limit);
+}
@@ -0,0 +1,56 @@
+package com.hospital.employee.repository;
+
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.entity.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Built with the Criteria API so that only the filters actually given end up in the SQL:
+// "(:x IS NULL OR col = :x)" in a static query would keep the planner off the indexes.
+// Each filter leads an index whose second column is matricule, so a filtered page is an
+// index range read in keyset order (idx_employees_departement, _poste, _nom).
+class EmployeeDirectoryRepositoryImpl implements EmployeeDirectoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EmployeeDto> findDirectoryPage(String departement, String poste, String nomPrefix,
+                                               String afterMatricule, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeDto> query = cb.createQuery(EmployeeDto.class);
+        Root<Employee> e = query.from(Employee.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(e.get("matricule"), afterMatricule));
+        if (departement != null) {
+            predicates.add(cb.equal(e.get("departement"), departement));
+        }
+        if (poste != null) {
+            predicates.add(cb.equal(e.get("poste"), poste));
+        }
+        if (nomPrefix != null) {
+            predicates.add(cb.like(e.get("nom"), escapeLike(nomPrefix) + "%", '\\'));
+        }
+
+        query.select(cb.construct(EmployeeDto.class,
+                        e.get("matricule"), e.get("nom"), e.get("poste"), e.get("departement"),
+                        e.get("telephone"), e.get("email"), e.get("createdAt"), e.get("updatedAt"),
+                        e.get("version")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(e.get("matricule")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // The prefix is matched literally: % and _ typed by the user are not wildcards
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
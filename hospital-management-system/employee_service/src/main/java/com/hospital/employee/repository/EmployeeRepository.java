@@ -1,11 +1,50 @@
 package com.hospital.employee.repository;
 
+import com.hospital.employee.dto.CollectionVersion;
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.dto.Headcount;
 import com.hospital.employee.entity.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, String> {
+public interface EmployeeRepository extends JpaRepository<Employee, String>, EmployeeDirectoryRepository {
+    
+    // Constructor expression for read-only queries: no entity instantiation or dirty-checking snapshots
+    String DTO_SELECT = "SELECT new com.hospital.employee.dto.EmployeeDto(e.matricule, e.nom, e.poste, " +
+            "e.departement, e.telephone, e.email, e.createdAt, e.updatedAt, e.version) FROM Employee e ";
+    
     Optional<Employee> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    @Query(DTO_SELECT + "WHERE e.matricule = :matricule")
+    Optional<EmployeeDto> findDtoByMatricule(@Param("matricule") String matricule);
+    
+    // Callers bound the collection size (see EmployeeService.getEmployeesByMatricules)
+    @Query(DTO_SELECT + "WHERE e.matricule IN :matricules")
+    List<EmployeeDto> findDtosByMatriculeIn(@Param("matricules") Collection<String> matricules);
+    
+    @Query(DTO_SELECT + "ORDER BY e.matricule")
+    List<EmployeeDto> findAllDtos();
+    
+    // Delta sync: range read on idx_employees_updated_at
+    @Query(DTO_SELECT + "WHERE e.updatedAt >= :since ORDER BY e.updatedAt, e.matricule")
+    List<EmployeeDto> findChangedSince(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    // One row per (departement, poste) pair; the service rolls them up per department and per post
+    @Query("SELECT new com.hospital.employee.dto.Headcount(e.departement, e.poste, COUNT(e)) FROM Employee e " +
+           "GROUP BY e.departement, e.poste ORDER BY e.departement, e.poste")
+    List<Headcount> countByDepartementAndPoste();
+    
+    // Changes with every insert, update or delete: the collection ETag of the listing. COUNT
+    // and both MAX are index reads (idx_employees_updated_at, idx_employee_tombstones_deleted_at).
+    @Query("SELECT new com.hospital.employee.dto.CollectionVersion(COUNT(e), MAX(e.updatedAt), " +
+           "(SELECT MAX(t.deletedAt) FROM EmployeeTombstone t)) FROM Employee e")
+    CollectionVersion findCollectionVersion();
 }
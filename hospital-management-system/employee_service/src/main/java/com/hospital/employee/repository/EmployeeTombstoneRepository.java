@@ -0,0 +1,26 @@
+package com.hospital.employee.repository;
+
+import com.hospital.employee.entity.EmployeeTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmployeeTombstoneRepository extends JpaRepository<EmployeeTombstone, String> {
+
+    // Range read on idx_employee_tombstones_deleted_at
+    @Query("SELECT t.matricule FROM EmployeeTombstone t WHERE t.deletedAt >= :since ORDER BY t.deletedAt")
+    List<String> findMatriculesDeletedSince(@Param("since") LocalDateTime since);
+
+    // A re-created matricule is live again; one statement, no SELECT first
+    @Modifying
+    @Query("DELETE FROM EmployeeTombstone t WHERE t.matricule = :matricule")
+    int deleteByMatricule(@Param("matricule") String matricule);
+
+    @Modifying
+    @Query("DELETE FROM EmployeeTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
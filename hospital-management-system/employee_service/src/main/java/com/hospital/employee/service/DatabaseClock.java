@@ -0,0 +1,20 @@
+package com.hospital.employee.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// The database's clock, one for every instance: delta sync stamps its changes and reads its
+// windows with it, so neither depends on the time of the node that served the request
+@Component
+public class DatabaseClock {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+    }
+}
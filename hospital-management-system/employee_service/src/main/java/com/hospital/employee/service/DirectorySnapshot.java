@@ -0,0 +1,275 @@
+package com.hospital.employee.service;
+
+import com.hospital.employee.dto.EmployeeDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Immutable view of the employee directory with a prefix index: every normalized key
+// (lower-cased, accents stripped) of every employee — full name, each word of the name,
+// matricule and email — in one sorted array, with the owning matricule alongside. A prefix
+// lookup is a binary search followed by a scan of the matching run, so it touches only
+// the keys it returns.
+//
+// with()/without() return a new snapshot and leave this one untouched (copy on write):
+// readers holding a reference never see a partial update and never lock.
+final class DirectorySnapshot {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORDS = Pattern.compile("[\\s\\-']+");
+
+    static final DirectorySnapshot EMPTY = new DirectorySnapshot(Map.of(), new String[0], new String[0], 0);
+
+    private final Map<String, EmployeeDto> byMatricule;
+    // Sorted by key, then matricule; owners[i] is the matricule keys[i] belongs to
+    private final String[] keys;
+    private final String[] owners;
+    // Heap of the DTOs and key strings, kept up to date by with()/without() per employee
+    private final long contentBytes;
+
+    private DirectorySnapshot(Map<String, EmployeeDto> byMatricule, String[] keys, String[] owners,
+                              long contentBytes) {
+        this.byMatricule = byMatricule;
+        this.keys = keys;
+        this.owners = owners;
+        this.contentBytes = contentBytes;
+    }
+
+    static DirectorySnapshot of(Collection<EmployeeDto> employees) {
+        Map<String, EmployeeDto> byMatricule = new HashMap<>(employees.size() * 4 / 3 + 1);
+        List<Entry> entries = new ArrayList<>(employees.size() * 4);
+        long contentBytes = 0;
+        for (EmployeeDto employee : employees) {
+            byMatricule.put(employee.getMatricule(), employee);
+            entries.addAll(entries(employee));
+            contentBytes += employeeBytes(employee);
+        }
+        Collections.sort(entries);
+        return build(Collections.unmodifiableMap(byMatricule), entries, contentBytes);
+    }
+
+    // This snapshot plus (or with a replaced) employee
+    DirectorySnapshot with(EmployeeDto employee) {
+        Map<String, EmployeeDto> byMatricule = new HashMap<>(this.byMatricule);
+        EmployeeDto previous = byMatricule.put(employee.getMatricule(), employee);
+        List<Entry> added = entries(employee);
+        Collections.sort(added);
+        long contentBytes = this.contentBytes + employeeBytes(employee)
+                - (previous != null ? employeeBytes(previous) : 0);
+        return merge(Collections.unmodifiableMap(byMatricule), employee.getMatricule(), added, contentBytes);
+    }
+
+    // This snapshot minus the employee, or this snapshot itself when it is not present
+    DirectorySnapshot without(String matricule) {
+        EmployeeDto previous = byMatricule.get(matricule);
+        if (previous == null) {
+            return this;
+        }
+        Map<String, EmployeeDto> byMatricule = new HashMap<>(this.byMatricule);
+        byMatricule.remove(matricule);
+        return merge(Collections.unmodifiableMap(byMatricule), matricule, List.of(),
+                contentBytes - employeeBytes(previous));
+    }
+
+    // Up to limit employees with a key starting with the (normalized) prefix, in key order,
+    // each employee once
+    List<EmployeeDto> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> matches = new LinkedHashSet<>();
+        for (int i = lowerBound(normalized); i < keys.length && matches.size() < limit; i++) {
+            if (!keys[i].startsWith(normalized)) {
+                break;
+            }
+            matches.add(owners[i]);
+        }
+        List<EmployeeDto> employees = new ArrayList<>(matches.size());
+        for (String matricule : matches) {
+            employees.add(byMatricule.get(matricule));
+        }
+        return employees;
+    }
+
+    EmployeeDto get(String matricule) {
+        return byMatricule.get(matricule);
+    }
+
+    int size() {
+        return byMatricule.size();
+    }
+
+    int keyCount() {
+        return keys.length;
+    }
+
+    // Rough heap footprint of the snapshot (DTOs, map, index arrays and key strings),
+    // assuming compressed oops and compact Latin-1 strings
+    long estimatedBytes() {
+        // Two reference arrays, and the HashMap table (power of two, 0.75 load factor)
+        return 2 * (16 + 4L * keys.length)
+                + 16 + 4L * Integer.highestOneBit(Math.max(1, byMatricule.size() * 4 / 3)) * 2
+                + contentBytes;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    // First index whose key is >= prefix
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // One pass over the sorted arrays: drop the matricule's old keys, merge in the new ones.
+    // contentBytes already accounts for the employee itself; the keys are accounted here.
+    private DirectorySnapshot merge(Map<String, EmployeeDto> byMatricule, String matricule, List<Entry> added,
+                                    long contentBytes) {
+        int removed = 0;
+        for (int i = 0; i < owners.length; i++) {
+            if (owners[i].equals(matricule)) {
+                removed++;
+                contentBytes -= keyBytes(keys[i], owners[i]);
+            }
+        }
+        for (Entry entry : added) {
+            contentBytes += keyBytes(entry.key, entry.owner);
+        }
+        String[] mergedKeys = new String[keys.length - removed + added.size()];
+        String[] mergedOwners = new String[mergedKeys.length];
+        int out = 0;
+        int next = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (owners[i].equals(matricule)) {
+                continue;
+            }
+            while (next < added.size() && added.get(next).compareTo(keys[i], owners[i]) < 0) {
+                mergedKeys[out] = added.get(next).key;
+                mergedOwners[out++] = added.get(next++).owner;
+            }
+            mergedKeys[out] = keys[i];
+            mergedOwners[out++] = owners[i];
+        }
+        while (next < added.size()) {
+            mergedKeys[out] = added.get(next).key;
+            mergedOwners[out++] = added.get(next++).owner;
+        }
+        return new DirectorySnapshot(byMatricule, mergedKeys, mergedOwners, contentBytes);
+    }
+
+    private static DirectorySnapshot build(Map<String, EmployeeDto> byMatricule, List<Entry> entries,
+                                           long contentBytes) {
+        String[] keys = new String[entries.size()];
+        String[] owners = new String[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).key;
+            owners[i] = entries.get(i).owner;
+            contentBytes += keyBytes(keys[i], owners[i]);
+        }
+        return new DirectorySnapshot(byMatricule, keys, owners, contentBytes);
+    }
+
+    private static List<Entry> entries(EmployeeDto employee) {
+        String matricule = employee.getMatricule();
+        Set<String> keys = new LinkedHashSet<>();
+        String nom = normalize(employee.getNom());
+        if (!nom.isEmpty()) {
+            keys.add(nom);
+            for (String word : WORDS.split(nom)) {
+                if (!word.isEmpty()) {
+                    keys.add(word);
+                }
+            }
+        }
+        keys.add(normalize(matricule));
+        String email = normalize(employee.getEmail());
+        if (!email.isEmpty()) {
+            keys.add(email);
+        }
+        List<Entry> entries = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            entries.add(new Entry(key, matricule));
+        }
+        return entries;
+    }
+
+    // Map node, the DTO itself, its strings and timestamps (LocalDateTime = 3 objects)
+    private static long employeeBytes(EmployeeDto employee) {
+        return 32 + 48
+                + stringBytes(employee.getMatricule()) + stringBytes(employee.getNom())
+                + stringBytes(employee.getPoste()) + stringBytes(employee.getDepartement())
+                + stringBytes(employee.getTelephone()) + stringBytes(employee.getEmail())
+                + (employee.getCreatedAt() != null ? 72 : 0) + (employee.getUpdatedAt() != null ? 72 : 0)
+                + (employee.getVersion() != null ? 16 : 0);
+    }
+
+    // A key string, unless it is the matricule itself
+    private static long keyBytes(String key, String owner) {
+        return key.equals(owner) ? 0 : stringBytes(key);
+    }
+
+    // String object plus its byte[] (one byte per char when Latin-1, two otherwise)
+    private static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 256) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long array = 16 + (long) value.length() * bytesPerChar;
+        return 24 + ((array + 7) & ~7L);
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final String key;
+        private final String owner;
+
+        private Entry(String key, String owner) {
+            this.key = key;
+            this.owner = owner;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return compareTo(other.key, other.owner);
+        }
+
+        private int compareTo(String otherKey, String otherOwner) {
+            int byKey = key.compareTo(otherKey);
+            return byKey != 0 ? byKey : owner.compareTo(otherOwner);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return size() + " employees, " + keyCount() + " keys, ~" + estimatedBytes() / 1024 + " KiB";
+    }
+}
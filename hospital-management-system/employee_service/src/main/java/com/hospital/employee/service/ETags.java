@@ -0,0 +1,30 @@
+package com.hospital.employee.service;
+
+import com.hospital.employee.dto.CollectionVersion;
+import com.hospital.employee.dto.EmployeeDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Strong validators for conditional GETs: an employee's row version plus its creation time
+// (a matricule deleted and re-created never matches the old ETag), and for the listing the
+// row count, latest updated_at and latest deletion, one of which every write changes
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(EmployeeDto employee) {
+        return "\"" + Long.toString(employee.getVersion() != null ? employee.getVersion() : 0, 36) + "-"
+                + millis(employee.getCreatedAt()) + "\"";
+    }
+
+    public static String of(CollectionVersion version) {
+        return "\"" + Long.toString(version.getCount(), 36) + "-" + millis(version.getLastUpdated()) + "-"
+                + millis(version.getLastDeleted()) + "\"";
+    }
+
+    private static String millis(LocalDateTime time) {
+        return Long.toString(time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0, 36);
+    }
+}
@@ -0,0 +1,131 @@
+package com.hospital.employee.service;
+
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.event.EmployeeChangedEvent;
+import com.hospital.employee.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory directory of all employees for autocomplete (see DirectorySnapshot). Reads
+// use whatever snapshot is current, without locking or touching the database; writers
+// build the next snapshot from it and swap the reference. Changes made by this instance
+// are applied after commit; the periodic reload picks up those made by other instances.
+//
+// Snapshot size is published as employee.directory.entries / .keys / .memory (bytes).
+@Component
+public class EmployeeDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectory.class);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile DirectorySnapshot snapshot = DirectorySnapshot.EMPTY;
+
+    // Serializes writers: each builds on the snapshot the previous one published. Held for
+    // in-memory work only, never across a database read.
+    private final Object writeLock = new Object();
+
+    // One reload at a time; ReentrantLock so a virtual thread loading does not pin its carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Changes applied while a reload reads the database, replayed onto what it loaded;
+    // null when no reload is running (guarded by writeLock)
+    private List<EmployeeChangedEvent> changesDuringReload;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("employee.directory.entries", this, directory -> directory.snapshot.size())
+                .description("Employees in the in-memory directory")
+                .register(meterRegistry);
+        Gauge.builder("employee.directory.keys", this, directory -> directory.snapshot.keyCount())
+                .description("Prefix index keys (names, name words, matricules, emails)")
+                .register(meterRegistry);
+        Gauge.builder("employee.directory.memory", this, directory -> directory.snapshot.estimatedBytes())
+                .description("Estimated heap used by the directory snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${employee.directory.refresh-interval-ms:300000}",
+               initialDelayString = "${employee.directory.refresh-interval-ms:300000}")
+    public void refresh() {
+        reload();
+    }
+
+    // Rebuild from the database without holding up writers: changes applied from the start
+    // of the load on are recorded and replayed onto the loaded snapshot before it is swapped
+    // in. A change the load already saw is applied twice, which is harmless.
+    public void reload() {
+        reloadLock.lock();
+        try {
+            synchronized (writeLock) {
+                changesDuringReload = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            DirectorySnapshot loaded;
+            try {
+                loaded = DirectorySnapshot.of(employeeRepository.findAllDtos());
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    changesDuringReload = null;
+                }
+                throw e;
+            }
+            synchronized (writeLock) {
+                for (EmployeeChangedEvent change : changesDuringReload) {
+                    loaded = apply(loaded, change);
+                }
+                changesDuringReload = null;
+                snapshot = loaded;
+            }
+            log.info("Employee directory loaded in {} ms: {}", (System.nanoTime() - start) / 1_000_000, loaded);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        synchronized (writeLock) {
+            snapshot = apply(snapshot, event);
+            if (changesDuringReload != null) {
+                changesDuringReload.add(event);
+            }
+        }
+    }
+
+    // Up to limit employees whose name (or a word of it), matricule or email starts with
+    // the prefix, ignoring case and accents
+    public List<EmployeeDto> autocomplete(String prefix, int limit) {
+        return snapshot.search(prefix, limit);
+    }
+
+    private static DirectorySnapshot apply(DirectorySnapshot snapshot, EmployeeChangedEvent change) {
+        return change.getAfter() != null
+                ? snapshot.with(change.getAfter())
+                : snapshot.without(change.getMatricule());
+    }
+}
@@ -1,15 +1,36 @@
 package com.hospital.employee.service;
 
+import com.hospital.employee.dto.BatchGetResult;
+import com.hospital.employee.dto.CursorPage;
 import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.dto.Headcount;
+import com.hospital.employee.dto.HeadcountReport;
 import com.hospital.employee.entity.Employee;
+import com.hospital.employee.entity.EmployeeTombstone;
+import com.hospital.employee.event.EmployeeChangedEvent;
 import com.hospital.employee.exception.EmployeeNotFoundException;
 import com.hospital.employee.exception.DuplicateEmployeeException;
 import com.hospital.employee.repository.EmployeeRepository;
+import com.hospital.employee.repository.EmployeeTombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 
 @Service
 public class EmployeeService {
@@ -17,29 +38,182 @@ public class EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EmployeeTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
+
+    @Autowired
+    private DatabaseClock databaseClock;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${employee.batch-get.max-keys:5000}")
+    private int maxBatchGetKeys;
+
+    @Value("${employee.batch-get.chunk-size:500}")
+    private int batchGetChunkSize;
+
+    @Value("${employee.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${employee.pagination.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${employee.directory.autocomplete.max-limit:50}")
+    private int maxAutocompleteLimit;
+
+    // Writes are bounded by employee.sync.write-timeout, which delta sync windows overlap by
+    @Transactional(timeoutString = "${employee.sync.write-timeout:10}")
     public EmployeeDto createEmployee(EmployeeDto dto) {
         if (employeeRepository.existsByEmail(dto.getEmail())) {
             throw new DuplicateEmployeeException("Employee with email " + dto.getEmail() + " already exists");
         }
         Employee emp = toEntity(dto);
+        emp.setUpdatedAt(databaseClock.now());
         Employee saved = employeeRepository.save(emp);
-        return toDto(saved);
+        // A matricule deleted earlier is live again: delta sync clients must not drop it
+        tombstoneRepository.deleteByMatricule(saved.getMatricule());
+        EmployeeDto created = toDto(saved);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(created));
+        return created;
     }
 
     public EmployeeDto getEmployeeByMatricule(String matricule) {
-        return toDto(employeeRepository.findById(matricule)
-            .orElseThrow(() -> new EmployeeNotFoundException("Not found: " + matricule)));
+        return employeeRepository.findDtoByMatricule(matricule)
+            .orElseThrow(() -> new EmployeeNotFoundException("Not found: " + matricule));
+    }
+
+    // Resolve many matricules at once with IN queries of at most batch-get.chunk-size keys;
+    // results keep the request order and unknown matricules are reported as missing
+    @Transactional(readOnly = true)
+    public BatchGetResult<EmployeeDto> getEmployeesByMatricules(List<String> matricules) {
+        Set<String> keys = new LinkedHashSet<>(matricules);
+        if (keys.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Matricules must not be null");
+        }
+        if (keys.size() > maxBatchGetKeys) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxBatchGetKeys + " matricules per batch");
+        }
+        List<String> ordered = new ArrayList<>(keys);
+        Map<String, EmployeeDto> found = new HashMap<>();
+        for (int from = 0; from < ordered.size(); from += batchGetChunkSize) {
+            List<String> chunk = ordered.subList(from, Math.min(from + batchGetChunkSize, ordered.size()));
+            for (EmployeeDto employee : employeeRepository.findDtosByMatriculeIn(chunk)) {
+                found.put(employee.getMatricule(), employee);
+            }
+        }
+        List<EmployeeDto> content = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String matricule : ordered) {
+            EmployeeDto employee = found.get(matricule);
+            if (employee != null) {
+                content.add(employee);
+            } else {
+                missing.add(matricule);
+            }
+        }
+        return new BatchGetResult<>(content, missing);
     }
 
     public List<EmployeeDto> getAllEmployees() {
-        return employeeRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        return employeeRepository.findAllDtos();
+    }
+
+    // Directory listing, one keyset page at a time, optionally narrowed to a department,
+    // a post and/or a name prefix (blank filters are ignored)
+    @Transactional(readOnly = true)
+    public CursorPage<EmployeeDto> getEmployees(String departement, String poste, String nomPrefix,
+                                                String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<EmployeeDto> rows = employeeRepository.findDirectoryPage(blankToNull(departement), blankToNull(poste),
+                blankToNull(nomPrefix), decodeCursor(cursor), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<EmployeeDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String next = hasNext ? encodeCursor(content.get(content.size() - 1).getMatricule()) : null;
+        return new CursorPage<>(content, next);
     }
 
+    // Headcounts from a single GROUP BY over (departement, poste); the per-department and
+    // per-post totals are sums of its rows
+    @Transactional(readOnly = true)
+    public HeadcountReport getHeadcounts() {
+        List<Headcount> byDepartementAndPoste = employeeRepository.countByDepartementAndPoste();
+        long total = byDepartementAndPoste.stream().mapToLong(Headcount::getCount).sum();
+        List<Headcount> byDepartement = rollUp(byDepartementAndPoste, Headcount::getDepartement, true);
+        List<Headcount> byPoste = rollUp(byDepartementAndPoste, Headcount::getPoste, false);
+        return new HeadcountReport(total, byDepartement, byPoste, byDepartementAndPoste);
+    }
+
+    // ETag of the employee listing: one aggregate over the indexes of the employees and
+    // their tombstones, no lock taken
+    public String getEmployeesETag() {
+        return ETags.of(employeeRepository.findCollectionVersion());
+    }
+
+    // Name, matricule or email prefix lookups from the in-memory directory (no database access)
+    public List<EmployeeDto> autocomplete(String prefix, Integer limit) {
+        int size = limit != null ? limit : 10;
+        if (size < 1 || size > maxAutocompleteLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + maxAutocompleteLimit);
+        }
+        return employeeDirectory.autocomplete(prefix, size);
+    }
+
+    @Transactional(timeoutString = "${employee.sync.write-timeout:10}")
     public void deleteEmployee(String matricule) {
-        if (!employeeRepository.existsById(matricule)) {
-            throw new EmployeeNotFoundException("Not found: " + matricule);
+        Employee employee = employeeRepository.findById(matricule)
+            .orElseThrow(() -> new EmployeeNotFoundException("Not found: " + matricule));
+        employeeRepository.delete(employee);
+        // Recorded in the same transaction, for delta sync clients (GET /changes)
+        tombstoneRepository.save(new EmployeeTombstone(matricule, databaseClock.now()));
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(toDto(employee)));
+    }
+
+    private List<Headcount> rollUp(List<Headcount> rows, Function<Headcount, String> key, boolean departement) {
+        // Employees without a department or post are grouped under null, listed last
+        Map<String, Long> counts = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        for (Headcount row : rows) {
+            counts.merge(key.apply(row), row.getCount(), Long::sum);
         }
-        employeeRepository.deleteById(matricule);
+        List<Headcount> rolledUp = new ArrayList<>(counts.size());
+        counts.forEach((value, count) -> rolledUp.add(departement
+                ? new Headcount(value, null, count)
+                : new Headcount(null, value, count)));
+        return rolledUp;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Cursors are the last returned matricule, base64url-encoded so clients treat them as opaque
+    private String encodeCursor(String lastMatricule) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastMatricule.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // A missing cursor means the first page: every matricule sorts after the empty string
+    private String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor: " + cursor);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 
     private Employee toEntity(EmployeeDto dto) {
@@ -63,6 +237,7 @@ public class EmployeeService {
         dto.setEmail(e.getEmail());
         dto.setCreatedAt(e.getCreatedAt());
         dto.setUpdatedAt(e.getUpdatedAt());
+        dto.setVersion(e.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,103 @@
+package com.hospital.employee.service;
+
+import com.hospital.employee.dto.EmployeeChanges;
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.repository.EmployeeRepository;
+import com.hospital.employee.repository.EmployeeTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+// Delta sync of the employee directory: clients keep a copy and fetch only what changed
+// since their last token, a range read on updated_at plus one on the tombstones.
+//
+// A token is the time the previous window was read, minus "overlap", all on the database
+// clock (DatabaseClock). A write stamped before a window was read but committed after it
+// still lands in the next one as long as the overlap exceeds the longest write transaction,
+// which employee.sync.write-timeout bounds. Windows overlap, so clients apply them
+// idempotently. No counter is involved: concurrent writes never wait on each other.
+@Service
+public class EmployeeSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSyncService.class);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private DatabaseClock databaseClock;
+
+    @Value("${employee.sync.overlap:30s}")
+    private Duration overlap;
+
+    // Above this many changes a full reload is cheaper for both sides
+    @Value("${employee.sync.max-changes:5000}")
+    private int maxChanges;
+
+    @Value("${employee.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    // Changes since the token; no token, an expired one (its tombstones may be purged) or
+    // too many changes answer with the full directory and reset = true
+    @Transactional(readOnly = true)
+    public EmployeeChanges getChanges(String token) {
+        LocalDateTime now = databaseClock.now();
+        String next = encodeToken(now.minus(overlap));
+        LocalDateTime since = decodeToken(token);
+        if (since == null || since.isBefore(now.minus(tombstoneRetention))) {
+            return reset(next);
+        }
+        List<EmployeeDto> changed = employeeRepository.findChangedSince(since, PageRequest.of(0, maxChanges + 1));
+        if (changed.size() > maxChanges) {
+            return reset(next);
+        }
+        List<String> deleted = tombstoneRepository.findMatriculesDeletedSince(since);
+        return new EmployeeChanges(changed, deleted, next, false);
+    }
+
+    @Scheduled(cron = "${employee.sync.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(databaseClock.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} employee tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    private EmployeeChanges reset(String next) {
+        return new EmployeeChanges(employeeRepository.findAllDtos(), List.of(), next, true);
+    }
+
+    // Opaque to clients: base64url of the window start
+    private String encodeToken(LocalDateTime since) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(since.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LocalDateTime decodeToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token: " + token);
+        }
+    }
+}
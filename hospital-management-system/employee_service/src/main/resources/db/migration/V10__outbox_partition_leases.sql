@@ -0,0 +1,4 @@
+-- OutboxRelay claims a partition with a lease instead of holding its row lock while the
+-- sinks work: locked_by names the relaying node, locked_until is when others may take over
+ALTER TABLE outbox_partitions ADD COLUMN locked_by VARCHAR(64);
+ALTER TABLE outbox_partitions ADD COLUMN locked_until TIMESTAMP(6);
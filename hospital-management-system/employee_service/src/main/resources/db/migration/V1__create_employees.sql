@@ -0,0 +1,13 @@
+-- Employees: email is unique and backs existsByEmail/findByEmail
+CREATE TABLE employees (
+    matricule   VARCHAR(255) NOT NULL,
+    nom         VARCHAR(255),
+    poste       VARCHAR(255),
+    departement VARCHAR(255),
+    telephone   VARCHAR(255),
+    email       VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT pk_employees PRIMARY KEY (matricule),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
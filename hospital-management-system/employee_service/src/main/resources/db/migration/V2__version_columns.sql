@@ -0,0 +1,5 @@
+-- Optimistic locking and ETags: bumped by every update
+ALTER TABLE employees ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- MAX(updated_at) for the collection ETag of the listing
+CREATE INDEX idx_employees_updated_at ON employees (updated_at);
@@ -0,0 +1,6 @@
+-- Directory filters: each leads an index ending in matricule, so a filtered page is read
+-- in keyset order straight from the index
+CREATE INDEX idx_employees_departement ON employees (departement, matricule);
+CREATE INDEX idx_employees_poste ON employees (poste, matricule);
+-- Name prefix search (LIKE 'abc%')
+CREATE INDEX idx_employees_nom ON employees (nom, matricule);
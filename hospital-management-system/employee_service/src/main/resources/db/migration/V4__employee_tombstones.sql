@@ -0,0 +1,9 @@
+-- Deleted employees, kept for delta sync (GET /api/employees/changes) until they are older
+-- than employee.sync.tombstone-retention. A matricule is in employees or here, never both.
+CREATE TABLE employee_tombstones (
+    matricule  VARCHAR(255) NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_employee_tombstones PRIMARY KEY (matricule)
+);
+
+CREATE INDEX idx_employee_tombstones_deleted_at ON employee_tombstones (deleted_at);
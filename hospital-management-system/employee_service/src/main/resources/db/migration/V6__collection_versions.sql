@@ -0,0 +1,9 @@
+-- One counter per collection, bumped by every transaction that changes it (OutboxWriter
+-- via CollectionVersions): the listing ETag is a primary-key read of this row
+CREATE TABLE collection_versions (
+    name    VARCHAR(32) NOT NULL,
+    version BIGINT      NOT NULL,
+    CONSTRAINT pk_collection_versions PRIMARY KEY (name)
+);
+
+INSERT INTO collection_versions (name, version) VALUES ('employee', 0);
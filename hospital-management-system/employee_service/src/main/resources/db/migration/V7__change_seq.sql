@@ -0,0 +1,8 @@
+-- Delta sync in commit order: every write stamps the collection version its transaction
+-- bumped (collection_versions 'employee'), where updated_at is taken before the commit and
+-- on each node's own clock. Rows written before this migration keep 0.
+ALTER TABLE employees ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employee_tombstones ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_employees_change_seq ON employees (change_seq);
+CREATE INDEX idx_employee_tombstones_change_seq ON employee_tombstones (change_seq);
@@ -0,0 +1,3 @@
+-- The listing ETag is an aggregate over the employees and their tombstones again: bumping
+-- this row locked it in every write transaction, so all employee writes queued on it
+DROP TABLE collection_versions;
@@ -0,0 +1,73 @@
+package com.hospital.employee.repository;
+
+import com.hospital.employee.dto.EmployeeDto;
+import com.hospital.employee.dto.Headcount;
+import com.hospital.employee.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class EmployeeDirectoryRepositoryTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setUp() {
+        employeeRepository.saveAll(List.of(
+                employee("E001", "Benali Amina", "Infirmier", "Urgences"),
+                employee("E002", "Durand Jean", "Médecin", "Urgences"),
+                employee("E003", "Benali Yassine", "Médecin", "Cardiologie"),
+                employee("E004", "Martin Pierre", "Infirmier", "Urgences"),
+                employee("E005", "Ben_ali Test", "Secrétaire", null)
+        ));
+        employeeRepository.flush();
+    }
+
+    @Test
+    public void testFiltersAreCombinedAndPagedInMatriculeOrder() {
+        assertEquals(List.of("E001", "E002", "E004"),
+                matricules(employeeRepository.findDirectoryPage("Urgences", null, null, "", 10)));
+        assertEquals(List.of("E001", "E004"),
+                matricules(employeeRepository.findDirectoryPage("Urgences", "Infirmier", null, "", 10)));
+        assertEquals(List.of("E004"),
+                matricules(employeeRepository.findDirectoryPage("Urgences", null, null, "E002", 1)));
+        assertEquals(List.of("E001", "E002"),
+                matricules(employeeRepository.findDirectoryPage(null, null, null, "", 2)));
+    }
+
+    @Test
+    public void testNamePrefixIsMatchedLiterally() {
+        assertEquals(List.of("E001", "E003"),
+                matricules(employeeRepository.findDirectoryPage(null, null, "Benali", "", 10)));
+        // "_" is not a single-character wildcard
+        assertEquals(List.of("E005"),
+                matricules(employeeRepository.findDirectoryPage(null, null, "Ben_", "", 10)));
+    }
+
+    @Test
+    public void testHeadcountsAreGroupedByDepartementAndPoste() {
+        List<Headcount> counts = employeeRepository.countByDepartementAndPoste();
+
+        assertEquals(5, counts.stream().mapToLong(Headcount::getCount).sum());
+        Headcount urgentNurses = counts.stream()
+                .filter(count -> "Urgences".equals(count.getDepartement()) && "Infirmier".equals(count.getPoste()))
+                .findFirst().orElseThrow();
+        assertEquals(2, urgentNurses.getCount());
+    }
+
+    private static Employee employee(String matricule, String nom, String poste, String departement) {
+        return new Employee(matricule, nom, poste, departement, "0600000000", matricule.toLowerCase() + "@example.com");
+    }
+
+    private static List<String> matricules(List<EmployeeDto> employees) {
+        return employees.stream().map(EmployeeDto::getMatricule).collect(Collectors.toList());
+    }
+}
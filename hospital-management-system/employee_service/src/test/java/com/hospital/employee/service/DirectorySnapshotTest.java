@@ -0,0 +1,82 @@
+package com.hospital.employee.service;
+
+import com.hospital.employee.dto.EmployeeDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DirectorySnapshotTest {
+
+    private final DirectorySnapshot snapshot = DirectorySnapshot.of(List.of(
+            employee("E001", "Hélène Durand", "helene.durand@example.com"),
+            employee("E002", "Jean Dupont", "jdupont@example.com"),
+            employee("E003", "Amina El Amrani", "amina@example.com"),
+            employee("X100", "Pierre Martin", "pmartin@example.com")
+    ));
+
+    @Test
+    public void testMatchesNameWordsMatriculesAndEmailsIgnoringCaseAndAccents() {
+        assertEquals(List.of("E001"), matricules(snapshot.search("HELENE", 10)));
+        // Key order: "dupont" before "durand"
+        assertEquals(List.of("E002", "E001"), matricules(snapshot.search("du", 10)));
+        assertEquals(List.of("E003"), matricules(snapshot.search("amr", 10)));
+        assertEquals(List.of("X100"), matricules(snapshot.search("x1", 10)));
+        assertEquals(List.of("E002"), matricules(snapshot.search("jdup", 10)));
+        assertEquals(List.of(), snapshot.search("zz", 10));
+        assertEquals(List.of(), snapshot.search("  ", 10));
+    }
+
+    @Test
+    public void testEachEmployeeIsReturnedOnceAndLimitIsApplied() {
+        // "amina" is both a name word and the email of E003
+        assertEquals(List.of("E003"), matricules(snapshot.search("amina", 10)));
+        assertEquals(3, snapshot.search("e", 10).size());
+        assertEquals(2, snapshot.search("e", 2).size());
+    }
+
+    @Test
+    public void testWritesProduceNewSnapshotsAndLeaveTheOldOneIntact() {
+        DirectorySnapshot added = snapshot.with(employee("E004", "Durant Yassine", "yassine@example.com"));
+        DirectorySnapshot renamed = added.with(employee("E001", "Hélène Bernard", "helene.durand@example.com"));
+        DirectorySnapshot removed = renamed.without("E002");
+
+        assertEquals(List.of("E001"), matricules(snapshot.search("dur", 10)));
+        assertEquals(List.of("E001", "E004"), matricules(added.search("dur", 10)));
+        assertEquals(List.of("E004"), matricules(renamed.search("dur", 10)));
+        assertEquals(List.of("E001"), matricules(renamed.search("bern", 10)));
+        assertEquals(List.of(), removed.search("dupont", 10));
+        assertEquals(4, removed.size());
+        assertSame(removed, removed.without("UNKNOWN"));
+    }
+
+    @Test
+    public void testReportsItsFootprint() {
+        assertTrue(snapshot.estimatedBytes() > 0);
+        assertTrue(snapshot.with(employee("E005", "Nouveau Nom", "nouveau@example.com")).estimatedBytes()
+                > snapshot.estimatedBytes());
+        assertEquals(0, DirectorySnapshot.EMPTY.size());
+
+        // Kept up to date per change: the same as a snapshot built from scratch
+        DirectorySnapshot changed = snapshot
+                .with(employee("E001", "Hélène Bernard", "helene.bernard@example.com"))
+                .without("E002");
+        assertEquals(DirectorySnapshot.of(List.of(
+                employee("E001", "Hélène Bernard", "helene.bernard@example.com"),
+                employee("E003", "Amina El Amrani", "amina@example.com"),
+                employee("X100", "Pierre Martin", "pmartin@example.com")
+        )).estimatedBytes(), changed.estimatedBytes());
+    }
+
+    private static EmployeeDto employee(String matricule, String nom, String email) {
+        return new EmployeeDto(matricule, nom, "Infirmier", "Urgences", "0600000000", email, null, null);
+    }
+
+    private static List<String> matricules(List<EmployeeDto> employees) {
+        return employees.stream().map(EmployeeDto::getMatricule).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,66 @@
+package com.hospital.employee.service;
+
+import com.hospital.employee.dto.EmployeeChanges;
+import com.hospital.employee.dto.EmployeeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "eureka.client.enabled=false")
+public class EmployeeSyncServiceTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeSyncService employeeSyncService;
+
+    @Test
+    public void testDeltasAfterTheFirstFullSync() {
+        employeeService.createEmployee(employee("SYNC-1"));
+        employeeService.createEmployee(employee("SYNC-2"));
+
+        EmployeeChanges full = employeeSyncService.getChanges(null);
+        assertTrue(full.isReset());
+        assertTrue(matricules(full.getChanged()).containsAll(List.of("SYNC-1", "SYNC-2")));
+
+        employeeService.deleteEmployee("SYNC-1");
+        employeeService.createEmployee(employee("SYNC-3"));
+
+        EmployeeChanges delta = employeeSyncService.getChanges(full.getToken());
+        assertFalse(delta.isReset());
+        assertTrue(matricules(delta.getChanged()).contains("SYNC-3"));
+        assertEquals(List.of("SYNC-1"), delta.getDeleted());
+        // Windows overlap: what the full sync already had comes again, applied idempotently
+        assertTrue(matricules(delta.getChanged()).contains("SYNC-2"));
+
+        // Re-created after its deletion: live again, no longer reported as deleted
+        employeeService.createEmployee(employee("SYNC-1"));
+        EmployeeChanges recreated = employeeSyncService.getChanges(delta.getToken());
+        assertTrue(matricules(recreated.getChanged()).contains("SYNC-1"));
+        assertEquals(List.of(), recreated.getDeleted());
+    }
+
+    @Test
+    public void testRejectsMalformedTokens() {
+        assertThrows(ResponseStatusException.class, () -> employeeSyncService.getChanges("not a token"));
+    }
+
+    private static EmployeeDto employee(String matricule) {
+        return new EmployeeDto(matricule, "Sync " + matricule, "Infirmier", "Urgences", "0600000000",
+                matricule.toLowerCase() + "@example.com", null, null);
+    }
+
+    private static List<String> matricules(List<EmployeeDto> employees) {
+        return employees.stream().map(EmployeeDto::getMatricule).collect(Collectors.toList());
+    }
+}
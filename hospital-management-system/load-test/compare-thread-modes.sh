@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# Runs the same closed-loop load against a service twice, once on the platform-thread
+# Tomcat pool and once with virtual threads (spring.threads.virtual.enabled), and
+# prints throughput and latency percentiles side by side. Virtual mode needs JDK 21+.
+#
+#   mvn -q -DskipTests package
+#   load-test/compare-thread-modes.sh patient-service      # or employee_service
+#
+# Tunables: CLIENTS (1000), DURATION (60s), WARMUP (15s), DB_POOL_SIZE (20), ROWS (500)
+set -euo pipefail
+
+SERVICE=${1:-patient-service}
+CLIENTS=${CLIENTS:-1000}
+DURATION=${DURATION:-60}
+WARMUP=${WARMUP:-15}
+ROWS=${ROWS:-500}
+export DB_POOL_SIZE=${DB_POOL_SIZE:-20}
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+DRIVER="$ROOT/load-test/target/load-test-1.0.0.jar"
+RESULTS="$ROOT/load-test/target/thread-modes-$SERVICE.csv"
+
+case "$SERVICE" in
+  patient-service)
+    PORT=8081
+    BASE="http://localhost:$PORT/patient-service"
+    TARGET="$BASE/api/patients?size=20"
+    ;;
+  employee_service)
+    PORT=8082
+    BASE="http://localhost:$PORT/employee-service"
+    TARGET="$BASE/api/employees"
+    ;;
+  *)
+    echo "Unknown service: $SERVICE" >&2
+    exit 1
+    ;;
+esac
+
+JAR=$(ls "$ROOT/$SERVICE"/target/*-1.0.0-exec.jar | head -n 1)
+
+JAVA_MAJOR=$(java -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}')
+if (( JAVA_MAJOR < 21 )); then
+  echo "JDK $JAVA_MAJOR has no virtual threads; the second run would also use platform threads" >&2
+  exit 1
+fi
+
+seed() {
+  if [[ "$SERVICE" == patient-service ]]; then
+    seq 1 "$ROWS" | awk '{ printf "{\"nom\":\"Patient %d\",\"dateNaissance\":\"1980-01-01\",\"email\":\"p%d@example.com\",\"numeroTelephone\":\"0600000000\",\"adresse\":\"1 rue de la Paix\",\"cin\":\"LT%06d\"}\n", $1, $1, $1 }' \
+      | curl -sf -o /dev/null -H 'Content-Type: application/x-ndjson' --data-binary @- "$BASE/api/patients/bulk"
+  else
+    for i in $(seq 1 "$ROWS"); do
+      curl -sf -o /dev/null -H 'Content-Type: application/json' \
+        -d "{\"matricule\":\"LT$i\",\"nom\":\"Employee $i\",\"poste\":\"Infirmier\",\"departement\":\"Urgences\",\"telephone\":\"0600000000\",\"email\":\"e$i@example.com\"}" \
+        "$BASE/api/employees"
+    done
+  fi
+}
+
+rm -f "$RESULTS"
+for VIRTUAL in false true; do
+  LABEL=$([[ $VIRTUAL == true ]] && echo virtual || echo platform)
+  VIRTUAL_THREADS=$VIRTUAL java -jar "$JAR" \
+    --eureka.client.enabled=false \
+    --spring.jpa.show-sql=false \
+    --logging.level.root=WARN \
+    --logging.level.com.hospital=INFO \
+    --logging.level.org.springframework.web=WARN &
+  PID=$!
+  trap 'kill $PID 2>/dev/null || true' EXIT
+
+  until curl -sf -o /dev/null "$BASE/actuator/health"; do sleep 1; done
+  seed
+  java -jar "$DRIVER" --url "$TARGET" --clients "$CLIENTS" --duration "$DURATION" \
+    --warmup "$WARMUP" --label "$LABEL" --csv "$RESULTS"
+
+  kill "$PID"
+  wait "$PID" 2>/dev/null || true
+done
+
+echo
+column -s, -t < "$RESULTS"
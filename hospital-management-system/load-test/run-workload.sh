@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# End-to-end run on one box: generates the synthetic dataset into file-backed H2
+# databases (once per size/seed), starts both services on them, replays the mixed
+# workload and prints per-operation throughput and latency percentiles.
+#
+#   mvn -q -DskipTests package
+#   ADULTS=2000000 CLIENTS=200 DURATION=120 load-test/run-workload.sh
+#
+# Tunables: ADULTS (1000000), MINORS (ADULTS*2/5), EMPLOYEES (10000), SEED (42),
+# CLIENTS (200), WARMUP (30s), DURATION (120s), MIX (WorkloadDriver default)
+set -euo pipefail
+
+ADULTS=${ADULTS:-1000000}
+MINORS=${MINORS:-$((ADULTS * 2 / 5))}
+EMPLOYEES=${EMPLOYEES:-10000}
+SEED=${SEED:-42}
+CLIENTS=${CLIENTS:-200}
+WARMUP=${WARMUP:-30}
+DURATION=${DURATION:-120}
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+DRIVER="$ROOT/load-test/target/load-test-1.0.0.jar"
+DATA="$ROOT/load-test/target/data/$ADULTS-$MINORS-$EMPLOYEES-$SEED"
+RESULTS="$ROOT/load-test/target/workload.csv"
+
+if [[ ! -f "$DATA/patientdb.mv.db" ]]; then
+  java -cp "$DRIVER" com.hospital.loadtest.DatasetGenerator --project-dir "$ROOT" --data-dir "$DATA" \
+    --adults "$ADULTS" --minors "$MINORS" --employees "$EMPLOYEES" --seed "$SEED"
+fi
+
+COMMON=(--eureka.client.enabled=false --spring.jpa.show-sql=false --management.endpoint.health.probes.enabled=true
+        --logging.level.root=WARN --logging.level.com.hospital=INFO --logging.level.org.springframework.web=WARN)
+java -jar "$ROOT"/patient-service/target/patient-service-1.0.0-exec.jar "${COMMON[@]}" \
+  --spring.datasource.url="jdbc:h2:file:$DATA/patientdb" \
+  --patient.search.index-path="$DATA/search-index" --patient.search.rebuild-on-startup=false &
+PATIENT_PID=$!
+java -jar "$ROOT"/employee_service/target/employee-service-1.0.0-exec.jar "${COMMON[@]}" \
+  --spring.datasource.url="jdbc:h2:file:$DATA/employeedb" &
+EMPLOYEE_PID=$!
+trap 'kill $PATIENT_PID $EMPLOYEE_PID 2>/dev/null || true' EXIT
+
+# Readiness flips only after startup listeners ran, i.e. once the search index is built
+# (the first time for a dataset; later runs reuse the on-disk index)
+until curl -sf -o /dev/null http://localhost:8081/patient-service/actuator/health/readiness; do sleep 1; done
+until curl -sf -o /dev/null http://localhost:8082/employee-service/actuator/health/readiness; do sleep 1; done
+
+java -cp "$DRIVER" com.hospital.loadtest.WorkloadDriver --adults "$ADULTS" --minors "$MINORS" \
+  --employees "$EMPLOYEES" --seed "$SEED" --clients "$CLIENTS" --warmup "$WARMUP" --duration "$DURATION" \
+  ${MIX:+--mix "$MIX"} --csv "$RESULTS"
@@ -0,0 +1,154 @@
+package com.hospital.loadtest;
+
+import org.flywaydb.core.Flyway;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.LongFunction;
+
+// Writes the synthetic population into file-backed H2 databases that the services can
+// then open in place of their in-memory ones. The schema comes from each service's own
+// Flyway migrations, so the services start with "validate" and an up-to-date history.
+//
+//   java -cp load-test.jar com.hospital.loadtest.DatasetGenerator \
+//        --data-dir target/data --adults 2000000 --minors 800000 --employees 20000
+//
+// then start the services with
+//   --spring.datasource.url=jdbc:h2:file:<data-dir>/patientdb   (and .../employeedb)
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int COMMIT_EVERY = 100_000;
+
+    // Must match MinorIdAllocator.SEQUENCE_NAME
+    private static final String MINOR_SEQUENCE = "patient_minor_id";
+
+    private static final String INSERT_PATIENT = "INSERT INTO patients (id, nom, date_naissance, email, "
+            + "numero_telephone, adresse, numero_securite_sociale, cin, is_minor, parent_cin, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EMPLOYEE = "INSERT INTO employees (matricule, nom, poste, departement, "
+            + "telephone, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public static void main(String[] args) throws SQLException {
+        Options options = new Options(args);
+        Path dataDir = Path.of(options.get("data-dir", "target/data")).toAbsolutePath();
+        Path root = Path.of(options.get("project-dir", ".")).toAbsolutePath();
+        long adults = options.getLong("adults", 1_000_000);
+        long minors = options.getLong("minors", adults * 2 / 5);
+        long employees = options.getLong("employees", 10_000);
+        String user = options.get("user", "AmDee");
+        String password = options.get("password", "AmDee");
+        Population population = new Population(options.getLong("seed", 42), LocalDate.now());
+
+        String patientUrl = "jdbc:h2:file:" + dataDir.resolve("patientdb");
+        migrate(patientUrl, user, password, root.resolve("patient-service/src/main/resources/db"));
+        try (Connection connection = DriverManager.getConnection(patientUrl, user, password)) {
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            insertPatients(connection, adults, population::adult);
+            insertPatients(connection, minors, j -> population.minor(j, adults));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "MERGE INTO id_blocks (name, next_value) KEY (name) VALUES (?, ?)")) {
+                // MIN-XXXX numbering continues after the generated minors
+                statement.setString(1, MINOR_SEQUENCE);
+                statement.setLong(2, minors + 1);
+                statement.executeUpdate();
+            }
+            connection.commit();
+            report("patients", adults + minors, start);
+        }
+
+        String employeeUrl = "jdbc:h2:file:" + dataDir.resolve("employeedb");
+        migrate(employeeUrl, user, password, root.resolve("employee_service/src/main/resources/db"));
+        try (Connection connection = DriverManager.getConnection(employeeUrl, user, password)) {
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            insertEmployees(connection, employees, population);
+            connection.commit();
+            report("employees", employees, start);
+        }
+    }
+
+    // Same locations as the services' spring.flyway.locations, with {vendor} = h2
+    private static void migrate(String url, String user, String password, Path db) {
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .locations("filesystem:" + db.resolve("migration"), "filesystem:" + db.resolve("vendor/h2"))
+                .load()
+                .migrate();
+    }
+
+    private static void insertPatients(Connection connection, long count, LongFunction<Population.Patient> rows)
+            throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_PATIENT)) {
+            for (long i = 0; i < count; i++) {
+                Population.Patient patient = rows.apply(i);
+                statement.setString(1, patient.id);
+                statement.setString(2, patient.nom);
+                statement.setDate(3, Date.valueOf(patient.dateNaissance));
+                setNullable(statement, 4, patient.email);
+                statement.setString(5, patient.numeroTelephone);
+                statement.setString(6, patient.adresse);
+                setNullable(statement, 7, patient.numeroSecuriteSociale);
+                setNullable(statement, 8, patient.cin);
+                statement.setBoolean(9, patient.isMinor);
+                setNullable(statement, 10, patient.parentCin);
+                statement.setTimestamp(11, now);
+                statement.setTimestamp(12, now);
+                statement.addBatch();
+                flush(connection, statement, i + 1, count);
+            }
+        }
+    }
+
+    private static void insertEmployees(Connection connection, long count, Population population) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_EMPLOYEE)) {
+            for (long k = 0; k < count; k++) {
+                Population.Employee employee = population.employee(k);
+                statement.setString(1, employee.matricule);
+                statement.setString(2, employee.nom);
+                statement.setString(3, employee.poste);
+                statement.setString(4, employee.departement);
+                statement.setString(5, employee.telephone);
+                statement.setString(6, employee.email);
+                statement.setTimestamp(7, now);
+                statement.setTimestamp(8, now);
+                statement.addBatch();
+                flush(connection, statement, k + 1, count);
+            }
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement statement, long written, long count)
+            throws SQLException {
+        if (written % BATCH_SIZE == 0 || written == count) {
+            statement.executeBatch();
+        }
+        if (written % COMMIT_EVERY == 0 || written == count) {
+            connection.commit();
+        }
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value != null) {
+            statement.setString(index, value);
+        } else {
+            statement.setNull(index, Types.VARCHAR);
+        }
+    }
+
+    private static void report(String table, long rows, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %d rows in %.1f s (%.0f rows/s)%n", table, rows, seconds, rows / Math.max(seconds, 1e-9));
+    }
+}
@@ -0,0 +1,58 @@
+package com.hospital.loadtest;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// Latency samples (nanoseconds) of one client, or the merged samples of many. Not thread
+// safe: each client records into its own instance and they are merged at the end.
+final class Latencies {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private boolean sorted;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        sorted = false;
+    }
+
+    void error() {
+        errors++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    static Latencies merge(Collection<Latencies> parts) {
+        Latencies merged = new Latencies();
+        merged.samples = new long[Math.max(1, parts.stream().mapToInt(Latencies::count).sum())];
+        for (Latencies part : parts) {
+            System.arraycopy(part.samples, 0, merged.samples, merged.count, part.count);
+            merged.count += part.count;
+            merged.errors += part.errors;
+        }
+        return merged;
+    }
+
+    // Nearest-rank percentile in milliseconds; 100 is the maximum
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return samples[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hospital.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// Closed-loop HTTP load driver: each of --clients simulated users sends a GET, waits for
+// the response and immediately sends the next one, for --duration seconds after a
+// --warmup period. Prints throughput and latency percentiles, and appends them as one
+// CSV row to --csv when given.
+//
+//   java -jar load-test.jar --url http://localhost:8081/patient-service/api/patients?size=20 \
+//        --clients 1000 --duration 60 --warmup 15 --label virtual --csv results.csv
+public class LoadTest {
+
+    private static final String CSV_HEADER = "label,clients,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        URI uri = URI.create(options.require("url"));
+        int clients = options.getInt("clients", 1000);
+        Duration warmup = Duration.ofSeconds(options.getLong("warmup", 15));
+        Duration duration = Duration.ofSeconds(options.getLong("duration", 60));
+        String label = options.get("label", "run");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Client> users = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Client user = new Client(client, request, measureFrom, measureUntil, done);
+            users.add(user);
+            user.next();
+        }
+        done.await();
+
+        Latencies latencies = Latencies.merge(users.stream().map(user -> user.latencies).collect(Collectors.toList()));
+        double throughput = latencies.count() / (double) duration.toSeconds();
+        System.out.println(String.format("%s: %d clients, %d requests, %d errors, %.0f req/s, "
+                        + "p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms",
+                label, clients, latencies.count(), latencies.errors(), throughput,
+                latencies.percentileMillis(50), latencies.percentileMillis(90), latencies.percentileMillis(99),
+                latencies.percentileMillis(99.9), latencies.percentileMillis(100)));
+        if (options.has("csv")) {
+            String row = String.format(Locale.ROOT, "%s,%d,%d,%d,%.0f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                    label, clients, latencies.count(), latencies.errors(), throughput,
+                    latencies.percentileMillis(50), latencies.percentileMillis(90), latencies.percentileMillis(99),
+                    latencies.percentileMillis(99.9), latencies.percentileMillis(100));
+            append(Path.of(options.require("csv")), row);
+        }
+        System.exit(0);
+    }
+
+    private static void append(Path csv, String row) throws IOException {
+        if (Files.notExists(csv)) {
+            Files.writeString(csv, CSV_HEADER + System.lineSeparator());
+        }
+        Files.writeString(csv, row, StandardOpenOption.APPEND);
+    }
+
+    // One simulated user: at most one request in flight, so its samples need no synchronization
+    private static final class Client {
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final CountDownLatch done;
+        private final Latencies latencies = new Latencies();
+
+        private Client(HttpClient client, HttpRequest request, long measureFrom, long measureUntil, CountDownLatch done) {
+            this.client = client;
+            this.request = request;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.done = done;
+        }
+
+        private void next() {
+            long sent = System.nanoTime();
+            if (sent >= measureUntil) {
+                done.countDown();
+                return;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long received = System.nanoTime();
+                        if (sent >= measureFrom && received <= measureUntil) {
+                            if (failure != null || response.statusCode() >= 400) {
+                                latencies.error();
+                            } else {
+                                latencies.record(received - sent);
+                            }
+                        }
+                        next();
+                    });
+        }
+    }
+}
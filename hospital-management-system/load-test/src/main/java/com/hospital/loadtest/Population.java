@@ -0,0 +1,138 @@
+package com.hospital.loadtest;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+// The synthetic population, as pure functions of (seed, row index): the generator writes
+// row i and the workload driver can rebuild it later without reading the database.
+//
+//   adult i     id = cin = "GA%07d", unique email and SSN
+//   minor j     id = "MIN-%04d" (j + 1), parentCin = CIN of a seeded-random adult
+//   employee k  matricule = "EMP%07d", spread over DEPARTMENTS
+final class Population {
+
+    static final String[] FIRST_NAMES = {
+            "Mohamed", "Fatima", "Youssef", "Khadija", "Ahmed", "Aïcha", "Omar", "Salma", "Hamza", "Imane",
+            "Jean", "Marie", "Pierre", "Hélène", "Louis", "Chloé", "Lucas", "Léa", "Hugo", "Inès",
+            "Mehdi", "Nadia", "Rachid", "Samira", "Karim", "Zineb", "Anas", "Meryem", "Ilyas", "Sofia"};
+    static final String[] LAST_NAMES = {
+            "Alaoui", "Benali", "El Amrani", "Tazi", "Ouazzani", "Bennani", "Chraibi", "Idrissi", "Berrada", "Fassi",
+            "Martin", "Bernard", "Dubois", "Lefèvre", "Moreau", "Laurent", "Girard", "Rousseau", "Mercier", "Faure",
+            "Haddad", "Mansouri", "Ziani", "Kettani", "Lahlou", "Sqalli", "Naciri", "Benjelloun", "Skalli", "Zaoui"};
+    static final String[] DEPARTMENTS = {
+            "Cardiologie", "Urgences", "Pédiatrie", "Radiologie", "Chirurgie", "Neurologie", "Oncologie",
+            "Maternité", "Réanimation", "Administration"};
+    static final String[] POSTES = {
+            "Infirmier", "Médecin", "Aide-soignant", "Secrétaire médicale", "Technicien", "Pharmacien", "Brancardier"};
+    static final String[] CITIES = {"Casablanca", "Rabat", "Fès", "Marrakech", "Tanger", "Agadir", "Meknès", "Oujda"};
+
+    private static final long ADULT = 1, MINOR = 2, EMPLOYEE = 3;
+
+    private final long seed;
+    private final LocalDate today;
+
+    Population(long seed, LocalDate today) {
+        this.seed = seed;
+        this.today = today;
+    }
+
+    static String adultId(long i) {
+        return String.format("GA%07d", i);
+    }
+
+    static String minorId(long j) {
+        return String.format("MIN-%04d", j + 1);
+    }
+
+    static String matricule(long k) {
+        return String.format("EMP%07d", k);
+    }
+
+    Patient adult(long i) {
+        SplittableRandom random = random(ADULT, i);
+        String id = adultId(i);
+        LocalDate birth = today.minusYears(18 + random.nextInt(72)).minusDays(1 + random.nextInt(364));
+        return new Patient(id, name(random), birth, "patient." + i + "@example.test",
+                phone(random), address(random),
+                String.format("%03d-%02d-%04d", i / 1_000_000, (i / 10_000) % 100, i % 10_000),
+                id, false, null);
+    }
+
+    Patient minor(long j, long adults) {
+        SplittableRandom random = random(MINOR, j);
+        String parentCin = adultId(random.nextLong(adults));
+        LocalDate birth = today.minusYears(random.nextInt(17)).minusDays(1 + random.nextInt(364));
+        return new Patient(minorId(j), name(random), birth,
+                random.nextInt(4) == 0 ? "minor." + j + "@example.test" : null, phone(random), address(random),
+                null, null, true, parentCin);
+    }
+
+    Employee employee(long k) {
+        SplittableRandom random = random(EMPLOYEE, k);
+        return new Employee(matricule(k), name(random), POSTES[random.nextInt(POSTES.length)],
+                DEPARTMENTS[random.nextInt(DEPARTMENTS.length)], phone(random), "employee." + k + "@hospital.test");
+    }
+
+    // Independent stream per row so any row can be rebuilt on its own
+    private SplittableRandom random(long kind, long index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + kind * 0xBF58476D1CE4E5B9L + index);
+    }
+
+    static String name(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private static String phone(SplittableRandom random) {
+        return String.format("06%08d", random.nextInt(100_000_000));
+    }
+
+    private static String address(SplittableRandom random) {
+        return (1 + random.nextInt(300)) + " rue " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + ", "
+                + CITIES[random.nextInt(CITIES.length)];
+    }
+
+    static final class Patient {
+        final String id;
+        final String nom;
+        final LocalDate dateNaissance;
+        final String email;
+        final String numeroTelephone;
+        final String adresse;
+        final String numeroSecuriteSociale;
+        final String cin;
+        final boolean isMinor;
+        final String parentCin;
+
+        Patient(String id, String nom, LocalDate dateNaissance, String email, String numeroTelephone, String adresse,
+                String numeroSecuriteSociale, String cin, boolean isMinor, String parentCin) {
+            this.id = id;
+            this.nom = nom;
+            this.dateNaissance = dateNaissance;
+            this.email = email;
+            this.numeroTelephone = numeroTelephone;
+            this.adresse = adresse;
+            this.numeroSecuriteSociale = numeroSecuriteSociale;
+            this.cin = cin;
+            this.isMinor = isMinor;
+            this.parentCin = parentCin;
+        }
+    }
+
+    static final class Employee {
+        final String matricule;
+        final String nom;
+        final String poste;
+        final String departement;
+        final String telephone;
+        final String email;
+
+        Employee(String matricule, String nom, String poste, String departement, String telephone, String email) {
+            this.matricule = matricule;
+            this.nom = nom;
+            this.poste = poste;
+            this.departement = departement;
+            this.telephone = telephone;
+            this.email = email;
+        }
+    }
+}
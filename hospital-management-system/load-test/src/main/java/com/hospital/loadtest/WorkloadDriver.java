@@ -0,0 +1,348 @@
+package com.hospital.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// Replays a weighted mix of patient and employee calls against running services loaded
+// by DatasetGenerator (same --seed and sizes). Closed loop: each client waits for its
+// response before sending the next request. Reports throughput and latency percentiles
+// per operation, and appends them to --csv when given.
+//
+//   java -cp load-test.jar com.hospital.loadtest.WorkloadDriver --adults 2000000 --minors 800000 \
+//        --employees 20000 --clients 200 --duration 120 \
+//        --mix patient.get=40,patient.search=20,patient.create=10,patient.update=15,patient.delete=5,employee.get=7,employee.create=2,employee.delete=1
+//
+// Reads and updates target generated rows; deletes only remove rows the same client
+// created during this run, so the dataset stays intact across runs.
+public class WorkloadDriver {
+
+    private static final String DEFAULT_MIX = "patient.get=40,patient.search=20,patient.create=10,patient.update=15,"
+            + "patient.delete=5,employee.get=7,employee.create=2,employee.delete=1";
+    private static final String CSV_HEADER = "run,operation,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    enum Operation {
+        PATIENT_GET("patient.get"),
+        PATIENT_SEARCH("patient.search"),
+        PATIENT_CREATE("patient.create"),
+        PATIENT_UPDATE("patient.update"),
+        PATIENT_DELETE("patient.delete"),
+        EMPLOYEE_GET("employee.get"),
+        EMPLOYEE_CREATE("employee.create"),
+        EMPLOYEE_DELETE("employee.delete");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        static Operation fromLabel(String label) {
+            for (Operation operation : values()) {
+                if (operation.label.equals(label)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation: " + label);
+        }
+    }
+
+    private final String patientUrl;
+    private final String employeeUrl;
+    private final long adults;
+    private final long minors;
+    private final long employees;
+    private final Population population;
+    private final String run;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final HttpClient client;
+
+    private WorkloadDriver(Options options) {
+        this.patientUrl = options.get("patient-url", "http://localhost:8081/patient-service");
+        this.employeeUrl = options.get("employee-url", "http://localhost:8082/employee-service");
+        this.adults = options.getLong("adults", 1_000_000);
+        this.minors = options.getLong("minors", adults * 2 / 5);
+        this.employees = options.getLong("employees", 10_000);
+        this.population = new Population(options.getLong("seed", 42), LocalDate.now());
+        // Keys created by this run must not collide with earlier runs against the same data
+        this.run = options.get("run", Long.toString(System.currentTimeMillis() / 1000, 36));
+
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : options.get("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.trim().split("=");
+            mix.put(Operation.fromLabel(parts[0]), Integer.parseInt(parts[1]));
+        }
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        WorkloadDriver driver = new WorkloadDriver(options);
+        int clients = options.getInt("clients", 200);
+        Duration warmup = Duration.ofSeconds(options.getLong("warmup", 15));
+        Duration duration = Duration.ofSeconds(options.getLong("duration", 60));
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(clients);
+        List<Client> users = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Client user = driver.new Client(i, options.getLong("seed", 42), measureFrom, measureUntil, done);
+            users.add(user);
+            user.next();
+        }
+        done.await();
+
+        driver.report(users, duration, options.has("csv") ? Path.of(options.require("csv")) : null);
+        System.exit(0);
+    }
+
+    private void report(List<Client> users, Duration duration, Path csv) throws IOException {
+        List<String> rows = new ArrayList<>();
+        System.out.printf("%-16s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        List<Latencies> all = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            List<Latencies> parts = users.stream()
+                    .map(user -> user.latencies.get(operation))
+                    .collect(Collectors.toList());
+            Latencies merged = Latencies.merge(parts);
+            all.addAll(parts);
+            if (merged.count() + merged.errors() > 0) {
+                rows.add(print(operation.label, merged, duration));
+            }
+        }
+        rows.add(print("total", Latencies.merge(all), duration));
+
+        if (csv != null) {
+            if (Files.notExists(csv)) {
+                Files.writeString(csv, CSV_HEADER + System.lineSeparator());
+            }
+            for (String row : rows) {
+                Files.writeString(csv, run + "," + row + System.lineSeparator(), StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    // Prints one table line and returns it as a CSV row
+    private static String print(String label, Latencies latencies, Duration duration) {
+        double throughput = latencies.count() / (double) duration.toSeconds();
+        double[] percentiles = {
+                latencies.percentileMillis(50), latencies.percentileMillis(90), latencies.percentileMillis(99),
+                latencies.percentileMillis(99.9), latencies.percentileMillis(100)};
+        System.out.printf("%-16s %9d %7d %9.0f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                label, latencies.count(), latencies.errors(), throughput,
+                percentiles[0], percentiles[1], percentiles[2], percentiles[3], percentiles[4]);
+        return String.format(Locale.ROOT, "%s,%d,%d,%.0f,%.1f,%.1f,%.1f,%.1f,%.1f",
+                label, latencies.count(), latencies.errors(), throughput,
+                percentiles[0], percentiles[1], percentiles[2], percentiles[3], percentiles[4]);
+    }
+
+    // One simulated user; at most one request in flight, so its state needs no synchronization
+    private final class Client {
+        private final int index;
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final CountDownLatch done;
+        private final Map<Operation, Latencies> latencies = new EnumMap<>(Operation.class);
+        private final Deque<String> createdPatients = new ArrayDeque<>();
+        private final Deque<String> createdEmployees = new ArrayDeque<>();
+        private long sequence;
+
+        private Client(int index, long seed, long measureFrom, long measureUntil, CountDownLatch done) {
+            this.index = index;
+            this.random = new SplittableRandom(seed * 31 + index);
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.done = done;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Latencies());
+            }
+        }
+
+        private void next() {
+            long sent = System.nanoTime();
+            if (sent >= measureUntil) {
+                done.countDown();
+                return;
+            }
+            Operation operation = pick();
+            // Nothing of our own left to delete: create instead, so the mix stays write-heavy
+            if (operation == Operation.PATIENT_DELETE && createdPatients.isEmpty()) {
+                operation = Operation.PATIENT_CREATE;
+            } else if (operation == Operation.EMPLOYEE_DELETE && createdEmployees.isEmpty()) {
+                operation = Operation.EMPLOYEE_CREATE;
+            }
+            Operation performed = operation;
+            String key = newKey(performed);
+            client.sendAsync(request(performed, key), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long received = System.nanoTime();
+                        boolean ok = failure == null && response.statusCode() < 400;
+                        if (ok && performed == Operation.PATIENT_CREATE) {
+                            createdPatients.push(key);
+                        } else if (ok && performed == Operation.EMPLOYEE_CREATE) {
+                            createdEmployees.push(key);
+                        }
+                        if (sent >= measureFrom && received <= measureUntil) {
+                            if (ok) {
+                                latencies.get(performed).record(received - sent);
+                            } else {
+                                latencies.get(performed).error();
+                            }
+                        }
+                        next();
+                    });
+        }
+
+        private Operation pick() {
+            int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < operations.length; i++) {
+                if (roll < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        // Key for the row a create will insert, or the row a delete will remove
+        private String newKey(Operation operation) {
+            switch (operation) {
+                case PATIENT_CREATE:
+                case EMPLOYEE_CREATE:
+                    return "L" + run + "-" + index + "-" + (sequence++);
+                case PATIENT_DELETE:
+                    return createdPatients.pop();
+                case EMPLOYEE_DELETE:
+                    return createdEmployees.pop();
+                default:
+                    return null;
+            }
+        }
+
+        private HttpRequest request(Operation operation, String key) {
+            switch (operation) {
+                case PATIENT_GET:
+                    return get(patientUrl + "/api/patients/" + randomPatientId());
+                case PATIENT_SEARCH:
+                    String[] names = random.nextBoolean() ? Population.LAST_NAMES : Population.FIRST_NAMES;
+                    return get(patientUrl + "/api/patients/search?size=20&nom="
+                            + URLEncoder.encode(names[random.nextInt(names.length)], StandardCharsets.UTF_8));
+                case PATIENT_CREATE:
+                    return send("POST", patientUrl + "/api/patients", patientJson(newAdult(key)));
+                case PATIENT_UPDATE:
+                    Population.Patient adult = movedAdult(random.nextLong(adults));
+                    return send("PUT", patientUrl + "/api/patients/" + adult.id, patientJson(adult));
+                case PATIENT_DELETE:
+                    return send("DELETE", patientUrl + "/api/patients/" + key, null);
+                case EMPLOYEE_GET:
+                    return get(employeeUrl + "/api/employees/" + Population.matricule(random.nextLong(employees)));
+                case EMPLOYEE_CREATE:
+                    return send("POST", employeeUrl + "/api/employees", employeeJson(key));
+                case EMPLOYEE_DELETE:
+                    return send("DELETE", employeeUrl + "/api/employees/" + key, null);
+                default:
+                    throw new IllegalStateException("Unhandled operation " + operation);
+            }
+        }
+
+        private Population.Patient newAdult(String key) {
+            return new Population.Patient(null, Population.name(random), LocalDate.now().minusYears(30),
+                    key.toLowerCase(Locale.ROOT) + "@load.test", "0600000000", "1 rue de la Paix, Rabat",
+                    key, key, false, null);
+        }
+
+        // A generated adult with a new phone number and address
+        private Population.Patient movedAdult(long i) {
+            Population.Patient adult = population.adult(i);
+            return new Population.Patient(adult.id, adult.nom, adult.dateNaissance, adult.email,
+                    String.format("07%08d", random.nextInt(100_000_000)),
+                    (1 + random.nextInt(300)) + " boulevard Zerktouni, Casablanca",
+                    adult.numeroSecuriteSociale, adult.cin, false, null);
+        }
+
+        private String employeeJson(String key) {
+            return "{\"matricule\":" + quote(key)
+                    + ",\"nom\":" + quote(Population.name(random))
+                    + ",\"poste\":" + quote(Population.POSTES[random.nextInt(Population.POSTES.length)])
+                    + ",\"departement\":" + quote(Population.DEPARTMENTS[random.nextInt(Population.DEPARTMENTS.length)])
+                    + ",\"telephone\":\"0600000000\""
+                    + ",\"email\":" + quote(key.toLowerCase(Locale.ROOT) + "@load.test") + "}";
+        }
+
+        // Three adults for every minor lookup, roughly the generated proportion
+        private String randomPatientId() {
+            if (minors > 0 && random.nextInt(4) == 0) {
+                return Population.minorId(random.nextLong(minors));
+            }
+            return Population.adultId(random.nextLong(adults));
+        }
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest send(String method, String uri, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30));
+        if (json == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static String patientJson(Population.Patient patient) {
+        return "{\"nom\":" + quote(patient.nom)
+                + ",\"dateNaissance\":" + quote(patient.dateNaissance.toString())
+                + ",\"email\":" + quote(patient.email)
+                + ",\"numeroTelephone\":" + quote(patient.numeroTelephone)
+                + ",\"adresse\":" + quote(patient.adresse)
+                + ",\"numeroSecuriteSociale\":" + quote(patient.numeroSecuriteSociale)
+                + ",\"cin\":" + quote(patient.cin)
+                + ",\"parentCin\":" + quote(patient.parentCin) + "}";
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
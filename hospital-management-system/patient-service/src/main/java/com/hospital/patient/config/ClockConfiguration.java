@@ -0,0 +1,17 @@
+package com.hospital.patient.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+// The time the scheduled jobs run at (MinorTransitionJob's day, leases and timestamps);
+// tests replace it with a fixed clock instead of depending on the day they run
+@Configuration
+public class ClockConfiguration {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,55 @@
+package com.hospital.patient.config;
+
+import com.hospital.patient.monitoring.QueryCountingDataSource;
+import com.hospital.patient.monitoring.QueryStatsAspect;
+import com.hospital.patient.monitoring.QueryStatsFilter;
+import com.hospital.patient.monitoring.QueryStatsHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+// Per-request and per-service-call JDBC statistics (see the monitoring package). Wired
+// here rather than by component scanning so web slice tests stay free of JDBC concerns.
+@Configuration
+public class QueryStatsConfiguration {
+
+    // Static: a post-processor must not force the rest of this configuration to load early.
+    // Pools are wrapped; data sources delegating to them (the replica routing) are not, so
+    // each statement is counted once.
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof DelegatingDataSource)) {
+                    return new QueryCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilter(
+            MeterRegistry meterRegistry, QueryStatsHeaders queryStatsHeaders,
+            @Value("${patient.query-stats.statement-threshold:20}") int statementThreshold,
+            @Value("${patient.query-stats.repeat-threshold:10}") int repeatThreshold) {
+        FilterRegistrationBean<QueryStatsFilter> registration = new FilterRegistrationBean<>(
+                new QueryStatsFilter(meterRegistry, queryStatsHeaders, statementThreshold, repeatThreshold));
+        // Just inside the observation filter, so everything the request does is counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean
+    public QueryStatsAspect queryStatsAspect(MeterRegistry meterRegistry) {
+        return new QueryStatsAspect(meterRegistry);
+    }
+}
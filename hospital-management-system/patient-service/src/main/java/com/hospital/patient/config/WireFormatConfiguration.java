@@ -0,0 +1,39 @@
+package com.hospital.patient.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Response formats. JSON stays the default; clients sending Accept: application/cbor or
+// application/x-jackson-smile get the same DTOs in a binary encoding: no quoting or
+// escaping, dates as short strings and numbers as binary, so smaller bodies that are
+// cheaper to write and parse (see WireFormatBenchmark).
+//
+// Spring MVC would register these converters by itself, but with a bare ObjectMapper;
+// built from Boot's builder they share the JSON mapper's settings (ISO dates, modules).
+// Boot slots them in place of the defaults, after the JSON converter, so */* still gets JSON.
+@Configuration
+public class WireFormatConfiguration {
+
+    // Generated accessors instead of reflection for every mapper, including these two
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
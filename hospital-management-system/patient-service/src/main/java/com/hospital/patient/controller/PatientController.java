@@ -1,14 +1,29 @@
 package com.hospital.patient.controller;
 
+import com.hospital.patient.dto.BatchGetResult;
+import com.hospital.patient.dto.CursorPage;
+import com.hospital.patient.dto.HouseholdDto;
+import com.hospital.patient.dto.ImportReport;
 import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.service.ETags;
+import com.hospital.patient.service.ExportFormat;
+import com.hospital.patient.service.PatientChangeFeed;
+import com.hospital.patient.service.PatientImportService;
 import com.hospital.patient.service.PatientService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/patients")
@@ -18,6 +33,12 @@ public class PatientController {
     @Autowired
     private PatientService patientService;
     
+    @Autowired
+    private PatientImportService patientImportService;
+    
+    @Autowired
+    private PatientChangeFeed patientChangeFeed;
+    
     // Create a new patient
     @PostMapping
     public ResponseEntity<PatientDto> createPatient(@Valid @RequestBody PatientDto patientDto) {
@@ -25,18 +46,71 @@ public class PatientController {
         return new ResponseEntity<>(createdPatient, HttpStatus.CREATED);
     }
     
-    // Get all patients
+    // Bulk import from a JSON array; returns a per-row report
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReport> importPatients(@RequestBody List<PatientDto> patients) {
+        ImportReport report = patientImportService.importPatients(patients);
+        return ResponseEntity.ok(report);
+    }
+    
+    // Bulk import from NDJSON, one patient per line, imported as it is read; a malformed
+    // line ends the import and is reported as a failed row
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReport> importPatientsNdjson(InputStream body) {
+        ImportReport report = patientImportService.importNdjson(body);
+        return ResponseEntity.ok(report);
+    }
+    
+    // Get all patients (keyset paginated: pass the previous page's "next" as cursor).
+    // 304 without reading the page when nothing changed since the client's If-None-Match.
     @GetMapping
-    public ResponseEntity<List<PatientDto>> getAllPatients() {
-        List<PatientDto> patients = patientService.getAllPatients();
-        return ResponseEntity.ok(patients);
+    public ResponseEntity<CursorPage<PatientDto>> getAllPatients(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size,
+                                                                WebRequest request) {
+        String etag = patientService.getPatientsETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPage<PatientDto> patients = patientService.getAllPatients(cursor, size);
+        return ResponseEntity.ok().eTag(etag).body(patients);
+    }
+    
+    // Export all patients as NDJSON or CSV, streamed as rows are read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPatients(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        StreamingResponseBody body = outputStream -> patientService.exportPatients(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"patients." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
     
-    // Get patient by ID
+    // Committed creates, updates and deletes as Server-Sent Events; reconnecting clients send
+    // Last-Event-ID to resume, and get a "reset" event when they must reload instead
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPatientChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return patientChangeFeed.subscribe(lastEventId);
+    }
+    
+    // Get patient by ID; 304 when it still matches If-None-Match (no database access on a cache
+    // hit, so with several instances the ETag is as fresh as PatientCache's ttl)
     @GetMapping("/{id}")
-    public ResponseEntity<PatientDto> getPatientById(@PathVariable String id) {
+    public ResponseEntity<PatientDto> getPatientById(@PathVariable String id, WebRequest request) {
         PatientDto patient = patientService.getPatientById(id);
-        return ResponseEntity.ok(patient);
+        String etag = ETags.of(patient);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(patient);
+    }
+    
+    // Resolve a list of patient IDs in one call; unknown IDs come back under "missing"
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResult<PatientDto>> getPatientsByIds(@RequestBody List<String> ids) {
+        BatchGetResult<PatientDto> result = patientService.getPatientsByIds(ids);
+        return ResponseEntity.ok(result);
     }
     
     // Get patient by CIN
@@ -55,24 +129,42 @@ public class PatientController {
     
     // Get minors by parent CIN
     @GetMapping("/minors/parent/{parentCin}")
-    public ResponseEntity<List<PatientDto>> getMinorsByParentCin(@PathVariable String parentCin) {
-        List<PatientDto> minors = patientService.getMinorsByParentCin(parentCin);
+    public ResponseEntity<CursorPage<PatientDto>> getMinorsByParentCin(@PathVariable String parentCin,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer size) {
+        CursorPage<PatientDto> minors = patientService.getMinorsByParentCin(parentCin, cursor, size);
         return ResponseEntity.ok(minors);
     }
     
+    // A guardian with all of their minors
+    @GetMapping("/households/{parentCin}")
+    public ResponseEntity<HouseholdDto> getHousehold(@PathVariable String parentCin) {
+        HouseholdDto household = patientService.getHousehold(parentCin);
+        return ResponseEntity.ok(household);
+    }
+    
+    // Households of several guardians at once (?parentCin=A,B,...), in request order
+    @GetMapping("/households")
+    public ResponseEntity<List<HouseholdDto>> getHouseholds(@RequestParam List<String> parentCin) {
+        List<HouseholdDto> households = patientService.getHouseholds(parentCin);
+        return ResponseEntity.ok(households);
+    }
+    
     // Get all minors
     @GetMapping("/minors")
-    public ResponseEntity<List<PatientDto>> getAllMinors() {
-        List<PatientDto> minors = patientService.getAllMinors();
+    public ResponseEntity<CursorPage<PatientDto>> getAllMinors(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        CursorPage<PatientDto> minors = patientService.getAllMinors(cursor, size);
         return ResponseEntity.ok(minors);
     }
     
-    // Update patient
+    // Update patient; with If-Match, only if nobody changed it since (412 otherwise)
     @PutMapping("/{id}")
     public ResponseEntity<PatientDto> updatePatient(@PathVariable String id, 
-                                                   @Valid @RequestBody PatientDto patientDto) {
-        PatientDto updatedPatient = patientService.updatePatient(id, patientDto);
-        return ResponseEntity.ok(updatedPatient);
+                                                   @Valid @RequestBody PatientDto patientDto,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PatientDto updatedPatient = patientService.updatePatient(id, patientDto, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.of(updatedPatient)).body(updatedPatient);
     }
     
     // Delete patient
@@ -84,11 +176,20 @@ public class PatientController {
     
     // Search patients by name
     @GetMapping("/search")
-    public ResponseEntity<List<PatientDto>> searchPatientsByName(@RequestParam String nom) {
-        List<PatientDto> patients = patientService.searchPatientsByName(nom);
+    public ResponseEntity<CursorPage<PatientDto>> searchPatientsByName(@RequestParam String nom,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer size) {
+        CursorPage<PatientDto> patients = patientService.searchPatientsByName(nom, cursor, size);
         return ResponseEntity.ok(patients);
     }
     
+    // Rebuild the full-text search index from the database (admin)
+    @PostMapping("/search/rebuild-index")
+    public ResponseEntity<Map<String, Long>> rebuildSearchIndex() {
+        long indexed = patientService.rebuildSearchIndex();
+        return ResponseEntity.ok(Map.of("indexed", indexed));
+    }
+    
     // Health check endpoint
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
@@ -0,0 +1,43 @@
+package com.hospital.patient.datasource;
+
+import java.util.function.Supplier;
+
+// Pins the current thread's reads to the primary: for the request of a client that wrote
+// recently (see ReadYourWritesFilter), and around reads whose result outlives the request
+// (cache loads), where replica lag would otherwise be served long after it caught up.
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWrites() {}
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static void pin() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PRIMARY.remove();
+    }
+
+    private static void restore(Boolean previous) {
+        if (previous != null) {
+            PRIMARY.set(previous);
+        } else {
+            PRIMARY.remove();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.hospital.patient.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Hands out replica connections to read-only transactions and primary connections to
+// everything else (read-write transactions, work outside a transaction, reads pinned by
+// ReadYourWrites). When the replica cannot give a connection, reads fall back to the
+// primary and the replica is left alone for retry-interval before it is tried again.
+//
+// The decision is made when the connection is fetched, so this must sit behind a
+// LazyConnectionDataSourceProxy: the transaction manager asks for a connection before it
+// publishes the transaction's read-only flag, the lazy proxy only at the first statement.
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryIntervalMillis;
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbacks;
+
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration retryInterval,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryIntervalMillis = retryInterval.toMillis();
+        primaryConnections = Counter.builder("db.routing.connections").tag("target", "primary")
+                .description("Connections handed out, by pool").register(meterRegistry);
+        replicaConnections = Counter.builder("db.routing.connections").tag("target", "replica")
+                .description("Connections handed out, by pool").register(meterRegistry);
+        fallbacks = Counter.builder("db.routing.fallbacks")
+                .description("Read-only connections served by the primary because the replica was unavailable")
+                .register(meterRegistry);
+        Gauge.builder("db.routing.replica.available", this, routing -> routing.isReplicaAvailable() ? 1 : 0)
+                .description("1 while the replica is used for reads, 0 while reads fall back to the primary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routesToReplica()) {
+            if (isReplicaAvailable()) {
+                try {
+                    Connection connection = replica.getConnection();
+                    replicaConnections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replicaDownUntil = System.currentTimeMillis() + retryIntervalMillis;
+                    log.warn("Replica unavailable, reading from the primary for the next {} ms: {}",
+                            retryIntervalMillis, e.getMessage());
+                }
+            }
+            fallbacks.increment();
+        }
+        Connection connection = primary.getConnection();
+        primaryConnections.increment();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Routed connections use the pools' own credentials");
+    }
+
+    public boolean isReplicaAvailable() {
+        return System.currentTimeMillis() >= replicaDownUntil;
+    }
+
+    private boolean routesToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWrites.isPinnedToPrimary();
+    }
+}
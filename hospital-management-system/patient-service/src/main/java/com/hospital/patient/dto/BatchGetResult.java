@@ -0,0 +1,25 @@
+package com.hospital.patient.dto;
+
+import java.util.List;
+
+// Result of a batch lookup: the records found, in request order, and the keys that matched nothing
+public class BatchGetResult<T> {
+
+    private List<T> content;
+    private List<String> missing;
+
+    // Constructors
+    public BatchGetResult() {}
+
+    public BatchGetResult(List<T> content, List<String> missing) {
+        this.content = content;
+        this.missing = missing;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public List<String> getMissing() { return missing; }
+    public void setMissing(List<String> missing) { this.missing = missing; }
+}
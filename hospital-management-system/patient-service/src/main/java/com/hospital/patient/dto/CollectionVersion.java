@@ -0,0 +1,19 @@
+package com.hospital.patient.dto;
+
+import java.time.LocalDateTime;
+
+// Row count and latest update time of a table, from one aggregate query
+public class CollectionVersion {
+
+    private final long count;
+    private final LocalDateTime lastUpdated;
+
+    public CollectionVersion(long count, LocalDateTime lastUpdated) {
+        this.count = count;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public long getCount() { return count; }
+
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+}
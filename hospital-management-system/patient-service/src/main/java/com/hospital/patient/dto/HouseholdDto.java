@@ -0,0 +1,25 @@
+package com.hospital.patient.dto;
+
+import java.util.List;
+
+// A parent/guardian and the minors registered under their CIN
+public class HouseholdDto {
+
+    private PatientDto parent;
+    private List<PatientDto> minors;
+
+    // Constructors
+    public HouseholdDto() {}
+
+    public HouseholdDto(PatientDto parent, List<PatientDto> minors) {
+        this.parent = parent;
+        this.minors = minors;
+    }
+
+    // Getters and Setters
+    public PatientDto getParent() { return parent; }
+    public void setParent(PatientDto parent) { this.parent = parent; }
+
+    public List<PatientDto> getMinors() { return minors; }
+    public void setMinors(List<PatientDto> minors) { this.minors = minors; }
+}
@@ -0,0 +1,35 @@
+package com.hospital.patient.dto;
+
+import java.util.List;
+
+// Per-row report of a bulk import, in request order
+public class ImportReport {
+    
+    private int total;
+    private int created;
+    private int failed;
+    private List<ImportRowResult> rows;
+    
+    // Constructors
+    public ImportReport() {}
+    
+    public ImportReport(List<ImportRowResult> rows) {
+        this.rows = rows;
+        this.total = rows.size();
+        this.created = (int) rows.stream().filter(row -> ImportRowResult.CREATED.equals(row.getStatus())).count();
+        this.failed = total - created;
+    }
+    
+    // Getters and Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+    
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    
+    public List<ImportRowResult> getRows() { return rows; }
+    public void setRows(List<ImportRowResult> rows) { this.rows = rows; }
+}
@@ -0,0 +1,44 @@
+package com.hospital.patient.dto;
+
+// Outcome of one row of a bulk import; index is the row's position in the request
+public class ImportRowResult {
+    
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+    
+    private int index;
+    private String status;
+    private String id;
+    private String error;
+    
+    // Constructors
+    public ImportRowResult() {}
+    
+    public ImportRowResult(int index, String status, String id, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+    
+    public static ImportRowResult created(int index, String id) {
+        return new ImportRowResult(index, CREATED, id, null);
+    }
+    
+    public static ImportRowResult failed(int index, String error) {
+        return new ImportRowResult(index, FAILED, null, error);
+    }
+    
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
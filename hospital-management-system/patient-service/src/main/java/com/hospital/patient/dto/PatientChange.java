@@ -0,0 +1,35 @@
+package com.hospital.patient.dto;
+
+// One committed change on the SSE feed (GET /api/patients/events). "patient" is the new
+// state (null for deletes); "previousId" is set when a minor turning adult was re-keyed
+// from MIN-XXXX to their CIN.
+public class PatientChange {
+
+    private String type;
+    private String id;
+    private String previousId;
+    private PatientDto patient;
+
+    // Constructors
+    public PatientChange() {}
+
+    public PatientChange(String type, String id, String previousId, PatientDto patient) {
+        this.type = type;
+        this.id = id;
+        this.previousId = previousId;
+        this.patient = patient;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getPreviousId() { return previousId; }
+    public void setPreviousId(String previousId) { this.previousId = previousId; }
+
+    public PatientDto getPatient() { return patient; }
+    public void setPatient(PatientDto patient) { this.patient = patient; }
+}
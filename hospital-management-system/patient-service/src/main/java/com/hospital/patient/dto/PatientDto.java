@@ -1,5 +1,6 @@
 package com.hospital.patient.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -30,6 +31,10 @@ public class PatientDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Carried for ETags (see ETags); clients see it only through the ETag header
+    @JsonIgnore
+    private Long version;
+    
     // Constructors
     public PatientDto() {}
     
@@ -51,6 +56,22 @@ public class PatientDto {
         this.updatedAt = updatedAt;
     }
     
+    public PatientDto(String id, String nom, LocalDate dateNaissance, String email, 
+                      String numeroTelephone, String adresse, String numeroSecuriteSociale,
+                      String cin, Boolean isMinor, String parentCin,
+                      LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, nom, dateNaissance, email, numeroTelephone, adresse, numeroSecuriteSociale,
+                cin, isMinor, parentCin, createdAt, updatedAt);
+        this.version = version;
+    }
+    
+    // Copy; every field is an immutable value, so the two share nothing that can change
+    public PatientDto(PatientDto other) {
+        this(other.id, other.nom, other.dateNaissance, other.email, other.numeroTelephone, other.adresse,
+                other.numeroSecuriteSociale, other.cin, other.isMinor, other.parentCin,
+                other.createdAt, other.updatedAt, other.version);
+    }
+    
     // Getters and Setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
@@ -87,4 +108,7 @@ public class PatientDto {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
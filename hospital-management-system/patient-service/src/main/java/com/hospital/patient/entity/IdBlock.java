@@ -0,0 +1,35 @@
+package com.hospital.patient.entity;
+
+import jakarta.persistence.*;
+
+// High-water mark of a block-allocated ID sequence; each node reserves
+// [nextValue, nextValue + blockSize) by advancing this row atomically.
+// MinorIdAllocator reads and writes id_blocks with plain SQL and never loads this entity.
+// It is mapped only so that ddl-auto: validate checks the table against Flyway's, and so
+// that Hibernate-generated schemas (the JMH benchmarks' Fixtures) include the table.
+@Entity
+@Table(name = "id_blocks")
+public class IdBlock {
+    
+    @Id
+    @Column(length = 64)
+    private String name;
+    
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+    
+    // Constructors
+    public IdBlock() {}
+    
+    public IdBlock(String name, Long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public Long getNextValue() { return nextValue; }
+    public void setNextValue(Long nextValue) { this.nextValue = nextValue; }
+}
@@ -0,0 +1,52 @@
+package com.hospital.patient.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Progress of a scheduled batch job, so a run can resume after a crash and
+// only one node runs it at a time (lease in lockedUntil)
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+    
+    @Id
+    @Column(length = 64)
+    private String name;
+    
+    // Last cutoff the job completed
+    private LocalDate cutoff;
+    
+    @Column(nullable = false)
+    private Long processed;
+    
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public JobCheckpoint() {}
+    
+    public JobCheckpoint(String name, Long processed) {
+        this.name = name;
+        this.processed = processed;
+    }
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public LocalDate getCutoff() { return cutoff; }
+    public void setCutoff(LocalDate cutoff) { this.cutoff = cutoff; }
+    
+    public Long getProcessed() { return processed; }
+    public void setProcessed(Long processed) { this.processed = processed; }
+    
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,16 +1,65 @@
 package com.hospital.patient.entity;
 
+import com.hospital.patient.dto.PatientDto;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
+import org.springframework.data.domain.Persistable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
 
 @Entity
-@Table(name = "patients")
-public class Patient {
+@Table(name = "patients",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_patients_email", columnNames = "email"),
+           @UniqueConstraint(name = "uk_patients_cin", columnNames = "cin"),
+           @UniqueConstraint(name = "uk_patients_numero_securite_sociale", columnNames = "numero_securite_sociale")
+       },
+       indexes = {
+           @Index(name = "idx_patients_parent_cin", columnList = "parent_cin, id"),
+           @Index(name = "idx_patients_is_minor", columnList = "is_minor, id"),
+           @Index(name = "idx_patients_minor_birth", columnList = "is_minor, date_naissance, id"),
+           @Index(name = "idx_patients_updated_at", columnList = "updated_at"),
+           @Index(name = "idx_patients_numero_telephone", columnList = "numero_telephone")
+       })
+// Households in one statement: the guardians by CIN (uk_patients_cin) and their minors by
+// parent CIN (idx_patients_parent_cin), each branch an index lookup. Native because the
+// JPQL alternative (cin IN ... OR parent_cin IN ...) leaves some databases scanning the table.
+// Run through the EntityManager by PatientHouseholdRepositoryImpl.
+@NamedNativeQuery(
+       name = "Patient.findHouseholdMembers",
+       query = "SELECT " + Patient.DTO_COLUMNS + " FROM patients WHERE cin IN (:cins) " +
+               "UNION " +
+               "SELECT " + Patient.DTO_COLUMNS + " FROM patients WHERE parent_cin IN (:cins) " +
+               "AND is_minor = TRUE AND date_naissance > :adultCutoff " +
+               "ORDER BY id",
+       resultSetMapping = "PatientDto")
+@SqlResultSetMapping(
+       name = "PatientDto",
+       classes = @ConstructorResult(targetClass = PatientDto.class, columns = {
+           @ColumnResult(name = "id"),
+           @ColumnResult(name = "nom"),
+           @ColumnResult(name = "date_naissance", type = LocalDate.class),
+           @ColumnResult(name = "email"),
+           @ColumnResult(name = "numero_telephone"),
+           @ColumnResult(name = "adresse"),
+           @ColumnResult(name = "numero_securite_sociale"),
+           @ColumnResult(name = "cin"),
+           @ColumnResult(name = "is_minor", type = Boolean.class),
+           @ColumnResult(name = "parent_cin"),
+           @ColumnResult(name = "created_at", type = LocalDateTime.class),
+           @ColumnResult(name = "updated_at", type = LocalDateTime.class),
+           @ColumnResult(name = "version", type = Long.class)
+       }))
+public class Patient implements Persistable<String> {
+    
+    public static final int ADULT_AGE = 18;
+    
+    // Columns of the "PatientDto" result set mapping, in constructor order
+    static final String DTO_COLUMNS = "id, nom, date_naissance, email, numero_telephone, adresse, " +
+            "numero_securite_sociale, cin, is_minor, parent_cin, created_at, updated_at, version";
     
     @Id
     private String id; // CIN or auto-generated ID for minors
@@ -49,15 +98,27 @@ public class Patient {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic locking: every UPDATE checks and bumps it, and ETags are derived from it
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
+    // IDs are assigned by the service, so Spring Data cannot tell new rows from existing ones;
+    // tracking it here makes save() a plain INSERT instead of a SELECT followed by a merge
+    @Transient
+    private boolean newEntity = true;
+    
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Kept when a row is re-inserted under a new ID (minor turning adult)
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         updatedAt = LocalDateTime.now();
         
         // Calculate if patient is minor based on birth date
         if (dateNaissance != null) {
-            int age = Period.between(dateNaissance, LocalDate.now()).getYears();
-            isMinor = age < 18;
+            isMinor = isMinorOn(dateNaissance, LocalDate.now());
         }
     }
     
@@ -66,6 +127,12 @@ public class Patient {
         updatedAt = LocalDateTime.now();
     }
     
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+    
     // Constructors
     public Patient() {}
     
@@ -83,12 +150,12 @@ public class Patient {
         
         // Calculate if patient is minor
         if (dateNaissance != null) {
-            int age = Period.between(dateNaissance, LocalDate.now()).getYears();
-            this.isMinor = age < 18;
+            this.isMinor = isMinorOn(dateNaissance, LocalDate.now());
         }
     }
     
     // Getters and Setters
+    @Override
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     
@@ -100,8 +167,7 @@ public class Patient {
         this.dateNaissance = dateNaissance;
         // Recalculate minor status when birth date changes
         if (dateNaissance != null) {
-            int age = Period.between(dateNaissance, LocalDate.now()).getYears();
-            this.isMinor = age < 18;
+            this.isMinor = isMinorOn(dateNaissance, LocalDate.now());
         }
     }
     
@@ -132,6 +198,22 @@ public class Patient {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    @Override
+    public boolean isNew() { return newEntity; }
+    
+    // Patients born after this date are minors on the given day. isMinor is only computed
+    // when the birth date is set; MinorTransitionJob flips it once the 18th birthday passes.
+    public static LocalDate adultCutoff(LocalDate today) {
+        return today.minusYears(ADULT_AGE);
+    }
+    
+    public static boolean isMinorOn(LocalDate dateNaissance, LocalDate today) {
+        return dateNaissance.isAfter(adultCutoff(today));
+    }
+    
     // Helper method to get age
     public int getAge() {
         if (dateNaissance == null) return 0;
@@ -0,0 +1,55 @@
+package com.hospital.patient.event;
+
+import com.hospital.patient.dto.PatientChange;
+import com.hospital.patient.dto.PatientDto;
+
+// Published by PatientService inside the writing transaction; "before" is null for
+// creates and "after" is null for deletes. Listeners that must only see committed
+// data use @TransactionalEventListener.
+public class PatientChangedEvent {
+    
+    public enum Type { CREATED, UPDATED, DELETED }
+    
+    private final Type type;
+    private final PatientDto before;
+    private final PatientDto after;
+    
+    private PatientChangedEvent(Type type, PatientDto before, PatientDto after) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+    }
+    
+    public static PatientChangedEvent created(PatientDto after) {
+        return new PatientChangedEvent(Type.CREATED, null, after);
+    }
+    
+    public static PatientChangedEvent updated(PatientDto before, PatientDto after) {
+        return new PatientChangedEvent(Type.UPDATED, before, after);
+    }
+    
+    public static PatientChangedEvent deleted(PatientDto before) {
+        return new PatientChangedEvent(Type.DELETED, before, null);
+    }
+    
+    public Type getType() { return type; }
+    
+    public PatientDto getBefore() { return before; }
+    
+    public PatientDto getAfter() { return after; }
+    
+    // Current ID of the patient (the old ID for deletes)
+    public String getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+    
+    // True when a minor turned adult and was re-keyed from MIN-XXXX to their CIN
+    public boolean isIdChanged() {
+        return before != null && after != null && !before.getId().equals(after.getId());
+    }
+    
+    // The change as sent to other parties (change feed, outbox)
+    public PatientChange toChange() {
+        return new PatientChange(type.name(), getId(), isIdChanged() ? before.getId() : null, after);
+    }
+}
@@ -0,0 +1,26 @@
+package com.hospital.patient.event;
+
+import com.hospital.patient.dto.PatientDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Published by PatientImportService once per inserted chunk, inside the chunk's transaction,
+// in place of a PatientChangedEvent per row: listeners take the whole chunk in one call
+// (one index lock, one change feed round, one outbox synchronization). Every patient in
+// it was just created.
+public class PatientsImportedEvent {
+
+    private final List<PatientDto> created;
+
+    public PatientsImportedEvent(List<PatientDto> created) {
+        this.created = created;
+    }
+
+    public List<PatientDto> getCreated() { return created; }
+
+    // The same chunk as one CREATED change per patient, in insert order
+    public List<PatientChangedEvent> toChangedEvents() {
+        return created.stream().map(PatientChangedEvent::created).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,9 @@
+package com.hospital.patient.exception;
+
+public class PatientModifiedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PatientModifiedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hospital.patient.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Wraps the pool so every statement execution and every fetched row is counted in the
+// calling thread's QueryStats. Only the JDBC calls on the hot path are intercepted;
+// everything else is forwarded untouched, and unwrap() still reaches the pool.
+public class QueryCountingDataSource extends DelegatingDataSource implements Closeable {
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection(), null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password), null);
+    }
+
+    // Keep the pool's shutdown reachable through the wrapper (inferred destroy method)
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    private static <T> T wrap(Class<T> type, T target, String sql) {
+        if (target == null) {
+            return null;
+        }
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, new Handler(target, sql)));
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final Object target;
+        private final String sql;
+
+        private Handler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // Identity semantics, so JDBC resource registries keyed by statement keep working
+            if ("equals".equals(name) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name) && (args == null || args.length == 0)) {
+                return System.identityHashCode(proxy);
+            }
+
+            if (target instanceof Connection) {
+                Object result = call(method, args);
+                if (name.equals("prepareStatement")) {
+                    return wrap(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+                }
+                if (name.equals("prepareCall")) {
+                    return wrap(CallableStatement.class, (CallableStatement) result, (String) args[0]);
+                }
+                if (name.equals("createStatement")) {
+                    return wrap(Statement.class, (Statement) result, null);
+                }
+                return result;
+            }
+
+            if (target instanceof ResultSet) {
+                if (name.equals("next")) {
+                    long start = System.nanoTime();
+                    boolean hasRow = (Boolean) call(method, args);
+                    long elapsed = System.nanoTime() - start;
+                    if (hasRow) {
+                        QueryStats.current().row(elapsed);
+                    } else {
+                        QueryStats.current().fetch(elapsed);
+                    }
+                    return hasRow;
+                }
+                return call(method, args);
+            }
+
+            // Statement, PreparedStatement or CallableStatement
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    Object result = call(method, args);
+                    return result instanceof ResultSet ? wrap(ResultSet.class, (ResultSet) result, null) : result;
+                } finally {
+                    String executed = sql != null ? sql : (args != null && args.length > 0 ? (String) args[0] : null);
+                    QueryStats.current().statement(executed, System.nanoTime() - start);
+                }
+            }
+            if (name.equals("getResultSet")) {
+                return wrap(ResultSet.class, (ResultSet) call(method, args), null);
+            }
+            return call(method, args);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
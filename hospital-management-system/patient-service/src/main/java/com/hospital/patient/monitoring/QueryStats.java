@@ -0,0 +1,89 @@
+package com.hospital.patient.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// JDBC activity of the current thread: statements executed, rows read and nanoseconds
+// spent in the driver. Counters only grow; a request or service call measures itself
+// as the difference between two snapshots, so nested scopes need no bookkeeping.
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = ThreadLocal.withInitial(QueryStats::new);
+
+    private long statements;
+    private long rows;
+    private long nanos;
+
+    // Per-SQL execution counts, only kept while a request is being traced (N+1 detection)
+    private Map<String, Integer> executions;
+
+    private QueryStats() {}
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void statement(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (executions != null && sql != null) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void row(long elapsedNanos) {
+        rows++;
+        nanos += elapsedNanos;
+    }
+
+    void fetch(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(statements, rows, nanos);
+    }
+
+    // Start recording which SQL strings run; returns false if an outer scope already does
+    boolean startTracing() {
+        if (executions != null) {
+            return false;
+        }
+        executions = new HashMap<>();
+        return true;
+    }
+
+    // Stop recording and return the most repeated SQL with its count, or null if nothing ran
+    Map.Entry<String, Integer> stopTracing() {
+        Map<String, Integer> traced = executions;
+        executions = null;
+        if (traced == null) {
+            return null;
+        }
+        return traced.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+
+    public static final class Snapshot {
+        private final long statements;
+        private final long rows;
+        private final long nanos;
+
+        private Snapshot(long statements, long rows, long nanos) {
+            this.statements = statements;
+            this.rows = rows;
+            this.nanos = nanos;
+        }
+
+        // Activity since this snapshot was taken on the current thread
+        public Snapshot elapsed() {
+            QueryStats now = current();
+            return new Snapshot(now.statements - statements, now.rows - rows, now.nanos - nanos);
+        }
+
+        public long getStatements() { return statements; }
+
+        public long getRows() { return rows; }
+
+        public long getNanos() { return nanos; }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hospital.patient.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.concurrent.TimeUnit;
+
+// Per service method JDBC activity (patient.service.db.* metrics tagged with class and
+// method), so a request's statement count can be traced to the call that issued it
+@Aspect
+public class QueryStatsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryStatsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * com.hospital.patient..*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryStats.Snapshot start = QueryStats.current().snapshot();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryStats.Snapshot used = start.elapsed();
+            String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            DistributionSummary.builder("patient.service.db.statements")
+                    .description("JDBC statements executed per service call")
+                    .tags("class", type, "method", method)
+                    .register(meterRegistry)
+                    .record(used.getStatements());
+            DistributionSummary.builder("patient.service.db.rows")
+                    .description("Rows read from JDBC result sets per service call")
+                    .tags("class", type, "method", method)
+                    .register(meterRegistry)
+                    .record(used.getRows());
+            Timer.builder("patient.service.db.time")
+                    .description("Time spent in JDBC calls per service call")
+                    .tags("class", type, "method", method)
+                    .register(meterRegistry)
+                    .record(used.getNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
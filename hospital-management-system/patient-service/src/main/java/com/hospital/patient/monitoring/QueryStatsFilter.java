@@ -0,0 +1,96 @@
+package com.hospital.patient.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Measures the JDBC work of each HTTP request: statements, rows and database time are
+// recorded per route as http.server.requests.db.* metrics, requests over the statement
+// threshold are logged, and the same SQL repeated many times is reported as a likely N+1.
+// Outside prod the counts are also returned as X-Query-* headers (see QueryStatsHeaders).
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    static final String START_ATTRIBUTE = QueryStatsFilter.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+    private final QueryStatsHeaders headers;
+    private final int statementThreshold;
+    private final int repeatThreshold;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry, QueryStatsHeaders headers,
+                            int statementThreshold, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+        this.statementThreshold = statementThreshold;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.current();
+        QueryStats.Snapshot start = stats.snapshot();
+        boolean tracing = stats.startTracing();
+        request.setAttribute(START_ATTRIBUTE, start);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Map.Entry<String, Integer> mostRepeated = tracing ? stats.stopTracing() : null;
+            QueryStats.Snapshot used = start.elapsed();
+            // Responses without a body are still uncommitted here; bodies got their headers before writing
+            if (!response.isCommitted()) {
+                headers.write(response::setHeader, used);
+            }
+            record(request, response, used, mostRepeated);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, QueryStats.Snapshot used,
+                        Map.Entry<String, Integer> mostRepeated) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        String status = Integer.toString(response.getStatus());
+
+        DistributionSummary.builder("http.server.requests.db.statements")
+                .description("JDBC statements executed per request")
+                .tags("method", method, "uri", uri, "status", status)
+                .register(meterRegistry)
+                .record(used.getStatements());
+        DistributionSummary.builder("http.server.requests.db.rows")
+                .description("Rows read from JDBC result sets per request")
+                .tags("method", method, "uri", uri, "status", status)
+                .register(meterRegistry)
+                .record(used.getRows());
+        Timer.builder("http.server.requests.db.time")
+                .description("Time spent in JDBC calls per request")
+                .tags("method", method, "uri", uri, "status", status)
+                .register(meterRegistry)
+                .record(used.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (used.getStatements() > statementThreshold) {
+            log.warn("{} {} executed {} statements ({} rows, {} ms in JDBC), over the threshold of {}",
+                    method, uri, used.getStatements(), used.getRows(),
+                    TimeUnit.NANOSECONDS.toMillis(used.getNanos()), statementThreshold);
+        }
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatThreshold) {
+            meterRegistry.counter("http.server.requests.db.repeated", "method", method, "uri", uri).increment();
+            log.warn("Possible N+1 in {} {}: the same statement ran {} times: {}",
+                    method, uri, mostRepeated.getValue(), mostRepeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hospital.patient.monitoring;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Adds X-Query-Count, X-Query-Rows and X-Query-Time-Ms to responses outside the prod
+// profile. Bodies are written (and the response committed) inside the filter chain, so
+// for them the headers are set here, just before serialization, once the controller
+// and all its service calls have returned.
+@ControllerAdvice
+public class QueryStatsHeaders implements ResponseBodyAdvice<Object> {
+
+    public static final String COUNT = "X-Query-Count";
+    public static final String ROWS = "X-Query-Rows";
+    public static final String TIME = "X-Query-Time-Ms";
+
+    private final boolean enabled;
+
+    public QueryStatsHeaders(Environment environment) {
+        this.enabled = !environment.acceptsProfiles(Profiles.of("prod"));
+    }
+
+    void write(BiConsumer<String, String> header, QueryStats.Snapshot used) {
+        if (enabled) {
+            header.accept(COUNT, Long.toString(used.getStatements()));
+            header.accept(ROWS, Long.toString(used.getRows()));
+            header.accept(TIME, Long.toString(TimeUnit.NANOSECONDS.toMillis(used.getNanos())));
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object start = ((ServletServerHttpRequest) request).getServletRequest()
+                    .getAttribute(QueryStatsFilter.START_ATTRIBUTE);
+            if (start instanceof QueryStats.Snapshot) {
+                write(response.getHeaders()::set, ((QueryStats.Snapshot) start).elapsed());
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hospital.patient.outbox;
+
+import com.hospital.common.outbox.OutboxWriter;
+import com.hospital.patient.event.PatientChangedEvent;
+import com.hospital.patient.event.PatientsImportedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Puts every patient change in the outbox, in the transaction making it (creates, updates
+// and deletes from PatientService and the minor transition job publish PatientChangedEvent,
+// imports one PatientsImportedEvent per chunk). The payload is the change as streamed on the change feed.
+@Component
+public class PatientOutboxListener {
+
+    static final String PATIENT = "patient";
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    // Synchronous: runs inside the publisher's transaction
+    @EventListener
+    public void onPatientChanged(PatientChangedEvent event) {
+        outboxWriter.append(PATIENT, event.getId(), event.getType().name(), event.toChange());
+    }
+
+    @EventListener
+    public void onPatientsImported(PatientsImportedEvent event) {
+        for (PatientChangedEvent change : event.toChangedEvents()) {
+            onPatientChanged(change);
+        }
+    }
+}
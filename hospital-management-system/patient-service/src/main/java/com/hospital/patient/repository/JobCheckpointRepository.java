@@ -0,0 +1,41 @@
+package com.hospital.patient.repository;
+
+import com.hospital.patient.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+    
+    // Take the lease unless another node holds it or the cutoff is already done; returns 0 when not acquired
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobCheckpoint c SET c.lockedUntil = :lockedUntil, c.updatedAt = :now " +
+           "WHERE c.name = :name AND (c.cutoff IS NULL OR c.cutoff < :cutoff) " +
+           "AND (c.lockedUntil IS NULL OR c.lockedUntil < :now)")
+    int acquire(@Param("name") String name, @Param("cutoff") LocalDate cutoff,
+                @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+    
+    // Record a committed batch and extend the lease, in the batch's own transaction
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobCheckpoint c SET c.processed = c.processed + :count, c.lockedUntil = :lockedUntil, " +
+           "c.updatedAt = :now WHERE c.name = :name")
+    int advance(@Param("name") String name, @Param("count") long count,
+                @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+    
+    // Mark the cutoff done and give the lease back
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobCheckpoint c SET c.cutoff = :cutoff, c.lockedUntil = NULL, c.updatedAt = :now " +
+           "WHERE c.name = :name")
+    int complete(@Param("name") String name, @Param("cutoff") LocalDate cutoff, @Param("now") LocalDateTime now);
+    
+    // Give the lease back after a failed run, leaving the cutoff to be retried
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobCheckpoint c SET c.lockedUntil = NULL, c.updatedAt = :now WHERE c.name = :name")
+    int release(@Param("name") String name, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,15 @@
+package com.hospital.patient.repository;
+
+import com.hospital.patient.dto.PatientDto;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// Household lookups, mixed into PatientRepository
+public interface PatientHouseholdRepository {
+
+    // Guardians with the given CINs plus their current minors (born after adultCutoff),
+    // ordered by ID. Callers bound the collection size.
+    List<PatientDto> findHouseholdMembers(Collection<String> cins, LocalDate adultCutoff);
+}
@@ -0,0 +1,27 @@
+package com.hospital.patient.repository;
+
+import com.hospital.patient.dto.PatientDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// Runs the Patient.findHouseholdMembers native UNION through the EntityManager so that its
+// "PatientDto" result set mapping applies; as a query method Spring Data would read the
+// rows as tuples and fail to convert them.
+class PatientHouseholdRepositoryImpl implements PatientHouseholdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<PatientDto> findHouseholdMembers(Collection<String> cins, LocalDate adultCutoff) {
+        return entityManager.createNamedQuery("Patient.findHouseholdMembers")
+                .setParameter("cins", cins)
+                .setParameter("adultCutoff", adultCutoff)
+                .getResultList();
+    }
+}
@@ -1,16 +1,33 @@
 package com.hospital.patient.repository;
 
+import com.hospital.patient.dto.CollectionVersion;
+import com.hospital.patient.dto.PatientDto;
 import com.hospital.patient.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, String> {
+public interface PatientRepository extends JpaRepository<Patient, String>, PatientHouseholdRepository {
+    
+    // Constructor expression for read-only queries: rows go straight from the result set
+    // into PatientDto without entity instantiation, snapshots or persistence-context entries
+    String DTO_SELECT = "SELECT new com.hospital.patient.dto.PatientDto(p.id, p.nom, p.dateNaissance, p.email, " +
+            "p.numeroTelephone, p.adresse, p.numeroSecuriteSociale, p.cin, p.isMinor, p.parentCin, " +
+            "p.createdAt, p.updatedAt, p.version) FROM Patient p ";
     
     // Find patient by email
     Optional<Patient> findByEmail(String email);
@@ -21,10 +38,6 @@ public interface PatientRepository extends JpaRepository<Patient, String> {
     // Find patient by social security number
     Optional<Patient> findByNumeroSecuriteSociale(String numeroSecuriteSociale);
     
-    // Find patients by name (case-insensitive)
-    @Query("SELECT p FROM Patient p WHERE LOWER(p.nom) LIKE LOWER(CONCAT('%', :nom, '%'))")
-    List<Patient> findByNomContainingIgnoreCase(@Param("nom") String nom);
-    
     // Find patients by phone number
     List<Patient> findByNumeroTelephone(String numeroTelephone);
     
@@ -46,7 +59,79 @@ public interface PatientRepository extends JpaRepository<Patient, String> {
     // Check if social security number exists
     boolean existsByNumeroSecuriteSociale(String numeroSecuriteSociale);
     
-    // Get next auto-generated ID for minors
-    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(p.id, 6) AS int)), 0) + 1 FROM Patient p WHERE p.id LIKE 'MIN-%'")
-    Integer getNextMinorId();
+    // Set-based existence checks for bulk import (callers bound the collection size)
+    @Query("SELECT p.cin FROM Patient p WHERE p.cin IN :cins")
+    List<String> findExistingCins(@Param("cins") Collection<String> cins);
+    
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT p.numeroSecuriteSociale FROM Patient p WHERE p.numeroSecuriteSociale IN :ssns")
+    List<String> findExistingNumerosSecuriteSociale(@Param("ssns") Collection<String> ssns);
+    
+    // Changes whenever a row is added, removed or updated (every write moves updated_at):
+    // the collection ETag of the listings. COUNT and MAX(updated_at) are both index reads.
+    @Query("SELECT new com.hospital.patient.dto.CollectionVersion(COUNT(p), MAX(p.updatedAt)) FROM Patient p")
+    CollectionVersion findCollectionVersion();
+    
+    // Projected point lookups
+    @Query(DTO_SELECT + "WHERE p.id = :id")
+    Optional<PatientDto> findDtoById(@Param("id") String id);
+    
+    @Query(DTO_SELECT + "WHERE p.cin = :cin")
+    Optional<PatientDto> findDtoByCin(@Param("cin") String cin);
+    
+    @Query(DTO_SELECT + "WHERE p.email = :email")
+    Optional<PatientDto> findDtoByEmail(@Param("email") String email);
+    
+    @Query(DTO_SELECT + "WHERE p.id IN :ids")
+    List<PatientDto> findDtosByIdIn(@Param("ids") Collection<String> ids);
+    
+    // Keyset pages ordered by ID; pass "" as afterId for the first page and
+    // PageRequest.of(0, n) as pageable so only a LIMIT is applied (no OFFSET, no COUNT)
+    @Query(DTO_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<PatientDto> findPageAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    // Walks idx_patients_is_minor (is_minor, id); the birth-date bound only drops rows not yet flipped by the transition job
+    @Query(DTO_SELECT + "WHERE p.isMinor = true AND p.dateNaissance > :adultCutoff AND p.id > :afterId ORDER BY p.id")
+    List<PatientDto> findMinorsPageAfter(@Param("adultCutoff") LocalDate adultCutoff,
+                                         @Param("afterId") String afterId, Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE p.parentCin = :parentCin AND p.id > :afterId ORDER BY p.id")
+    List<PatientDto> findByParentCinPageAfter(@Param("parentCin") String parentCin,
+                                              @Param("afterId") String afterId, Pageable pageable);
+    
+    // Stream every patient in ID order for bulk export and index rebuilds; must be
+    // consumed inside a transaction and closed. Projected rows never enter the
+    // persistence context, so memory stays flat however many rows are read.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "ORDER BY p.id")
+    Stream<PatientDto> streamAll();
+    
+    // Minors born on or before the cutoff, i.e. already 18: a range of idx_patients_minor_birth.
+    // Flipped rows leave the range, so repeating the query walks through the backlog.
+    @Query(DTO_SELECT + "WHERE p.isMinor = true AND p.dateNaissance <= :adultCutoff ORDER BY p.dateNaissance, p.id")
+    List<PatientDto> findMinorsBornOnOrBefore(@Param("adultCutoff") LocalDate adultCutoff, Pageable pageable);
+    
+    @Query("SELECT COUNT(p) FROM Patient p WHERE p.isMinor = true AND p.dateNaissance <= :adultCutoff")
+    long countMinorsBornOnOrBefore(@Param("adultCutoff") LocalDate adultCutoff);
+    
+    // IDs already in use among the given ones: the CINs a promotion cannot re-key onto
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+    
+    // Turn minors with a CIN on record into adults keyed by that CIN, keeping the row (its
+    // version and creation time). The one re-key path, for MinorTransitionJob and
+    // updatePatient alike. The primary key changes, which JPQL cannot express; nothing
+    // references patients.id.
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE patients SET id = cin, is_minor = FALSE, updated_at = :now, version = version + 1 " +
+                   "WHERE id IN (:ids) AND is_minor = TRUE AND cin IS NOT NULL", nativeQuery = true)
+    int promoteToAdultsWithCin(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+    
+    // The others keep their MIN-XXXX ID until a CIN is supplied through updatePatient
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Patient p SET p.isMinor = false, p.updatedAt = :now, p.version = p.version + 1 " +
+           "WHERE p.id IN :ids AND p.isMinor = true")
+    int promoteToAdults(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.CollectionVersion;
+import com.hospital.patient.dto.PatientDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Strong validators for conditional requests. A patient's ETag is its row version plus its
+// creation time, so a row deleted and re-created under the same ID (minor re-keyed back,
+// re-import) never matches an ETag handed out for the old one. A listing's ETag is the
+// table's row count plus its latest updated_at: any insert, update or delete changes it.
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(PatientDto patient) {
+        return quote(value(patient.getVersion()), patient.getCreatedAt());
+    }
+
+    public static String of(CollectionVersion version) {
+        return quote(version.getCount(), version.getLastUpdated());
+    }
+
+    // If-Match: "*" or a list of ETags, compared strongly (weak validators never match)
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch == null) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quote(long counter, LocalDateTime time) {
+        long millis = time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        return "\"" + Long.toString(counter, 36) + "-" + Long.toString(millis, 36) + "\"";
+    }
+
+    private static long value(Long version) {
+        return version != null ? version : 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.exception.InvalidPatientDataException;
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+    
+    private final MediaType mediaType;
+    private final String extension;
+    
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+    
+    public MediaType getMediaType() { return mediaType; }
+    
+    public String getExtension() { return extension; }
+    
+    // Resolve the ?format= request parameter (case-insensitive)
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidPatientDataException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,140 @@
+package com.hospital.patient.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hands out minor IDs from blocks reserved in the id_blocks table (hi/lo).
+// IDs inside a block come from an AtomicLong; the database is touched once per block,
+// so IDs are unique across nodes and restarts (unused tails of a block become gaps).
+//
+// Blocks are reserved over a connection of its own (pool "minor-id", one connection, made
+// from spring.datasource.*, i.e. always the primary database, also when read-only
+// transactions are routed to a replica). Callers reach nextId() inside their transaction,
+// each holding a connection of the application pool; a refill that took one more from
+// that pool would wait forever once the callers queued on refillLock hold them all.
+@Component
+public class MinorIdAllocator {
+    
+    static final String SEQUENCE_NAME = "patient_minor_id";
+    
+    private static final String PREFIX = "MIN-";
+    
+    // Moves the high-water mark forward; the row lock is held until the reservation commits
+    private static final String ADVANCE = "UPDATE id_blocks SET next_value = next_value + ? WHERE name = ?";
+    
+    // Plain INSERT (not merge) so a concurrent first reservation fails on the primary key
+    private static final String INSERT = "INSERT INTO id_blocks (name, next_value) VALUES (?, ?)";
+    
+    private static final String SELECT = "SELECT next_value FROM id_blocks WHERE name = ?";
+    
+    // Longest, then highest: the number outgrows its four zero-padded digits
+    private static final String LAST_MINOR_ID = "SELECT id FROM patients WHERE id LIKE '" + PREFIX + "%' " +
+            "ORDER BY LENGTH(id) DESC, id DESC LIMIT 1";
+    
+    @Autowired
+    private Environment environment;
+    
+    @Value("${patient.minor-id.block-size:50}")
+    private int blockSize;
+    
+    private HikariDataSource reservations;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+    
+    private volatile Block current = new Block(0, 0);
+    
+    // Only taken when a block runs out; ReentrantLock rather than synchronized so a
+    // virtual thread waiting on the JDBC round trip does not pin its carrier
+    private final ReentrantLock refillLock = new ReentrantLock();
+    
+    // Bound here rather than injected: the DataSourceProperties bean is whatever is @Primary
+    @PostConstruct
+    void init() throws Exception {
+        DataSourceProperties primary = Binder.get(environment)
+                .bind("spring.datasource", DataSourceProperties.class)
+                .orElseGet(DataSourceProperties::new);
+        primary.afterPropertiesSet();
+        reservations = primary.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        reservations.setPoolName("minor-id");
+        reservations.setMaximumPoolSize(1);
+        reservations.setMinimumIdle(0);
+        jdbcTemplate = new JdbcTemplate(reservations);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(reservations));
+    }
+    
+    @PreDestroy
+    void close() {
+        reservations.close();
+    }
+    
+    // Next free minor ID number
+    public long nextId() {
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.limit) {
+                return id;
+            }
+            refillLock.lock();
+            try {
+                if (current == block) {
+                    current = reserveBlock();
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+    
+    // Committed on its own connection, so the row lock is released before the caller's insert
+    private Block reserveBlock() {
+        try {
+            return transaction.execute(status -> reserve());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the sequence row first; it now exists, so advance it
+            return transaction.execute(status -> reserve());
+        }
+    }
+    
+    private Block reserve() {
+        if (jdbcTemplate.update(ADVANCE, blockSize, SEQUENCE_NAME) == 0) {
+            // First reservation ever: continue after any MIN-XXXX rows already present
+            long start = nextUnusedMinorId();
+            jdbcTemplate.update(INSERT, SEQUENCE_NAME, start + blockSize);
+            return new Block(start, start + blockSize);
+        }
+        Long end = jdbcTemplate.queryForObject(SELECT, Long.class, SEQUENCE_NAME);
+        return new Block(end - blockSize, end);
+    }
+    
+    // Highest MIN-XXXX number + 1; scans every minor, so only used to seed the sequence row
+    private long nextUnusedMinorId() {
+        List<String> last = jdbcTemplate.queryForList(LAST_MINOR_ID, String.class);
+        return last.isEmpty() ? 1 : Long.parseLong(last.get(0).substring(PREFIX.length())) + 1;
+    }
+    
+    private static final class Block {
+        private final AtomicLong next;
+        private final long limit;
+        
+        private Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
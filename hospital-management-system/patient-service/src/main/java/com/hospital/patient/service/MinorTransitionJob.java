@@ -0,0 +1,201 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.event.PatientChangedEvent;
+import com.hospital.patient.repository.JobCheckpointRepository;
+import com.hospital.patient.repository.PatientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Flips isMinor for patients whose 18th birthday has passed, so the flag (and /minors)
+// stays right without any per-request age computation. Minors with a CIN on record are
+// re-keyed from MIN-XXXX to it, through the same statement as updatePatient; the others
+// keep their ID, and so do those whose CIN is already another patient's ID (an adult
+// whose CIN changed keeps the old one as ID), counted in patient.minor_transition.rekey_skipped.
+//
+// The due patients are exactly the range (is_minor = true, date_naissance <= cutoff) of
+// idx_patients_minor_birth, and every flipped row leaves it, so each run only reads the
+// patients who came of age since the previous one. Batches commit on their own together
+// with the checkpoint's progress: after a crash the next run resumes where the last
+// committed batch stopped. A lease in job_checkpoints keeps other nodes out meanwhile.
+@Component
+public class MinorTransitionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MinorTransitionJob.class);
+
+    static final String JOB_NAME = "minor_transition";
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${patient.minor-transition.batch-size:500}")
+    private int batchSize;
+
+    @Value("${patient.minor-transition.lease:5m}")
+    private Duration lease;
+
+    private final AtomicLong remaining = new AtomicLong();
+    private Counter promoted;
+    private Counter rekeyed;
+    private Counter rekeySkipped;
+    private Timer runs;
+
+    @PostConstruct
+    void init() {
+        promoted = Counter.builder("patient.minor_transition.promoted")
+                .description("Minors turned into adults by the transition job")
+                .register(meterRegistry);
+        rekeyed = Counter.builder("patient.minor_transition.rekeyed")
+                .description("Promoted patients whose ID changed from MIN-XXXX to their CIN")
+                .register(meterRegistry);
+        rekeySkipped = Counter.builder("patient.minor_transition.rekey_skipped")
+                .description("Promoted patients who kept their MIN-XXXX ID because their CIN is already an ID")
+                .register(meterRegistry);
+        runs = Timer.builder("patient.minor_transition.run")
+                .description("Duration of transition runs that did work")
+                .register(meterRegistry);
+        meterRegistry.gauge("patient.minor_transition.remaining", remaining);
+    }
+
+    // Hourly: a run for a cutoff already done is a single UPDATE, and a missed or
+    // crashed run is picked up within the hour
+    @Scheduled(cron = "${patient.minor-transition.cron:0 5 * * * *}")
+    public void run() {
+        promoteDueMinors(LocalDate.now(clock));
+    }
+
+    // Promote everyone who is 18 on the given day; returns the number promoted
+    // (0 when the day is already done or another node holds the lease)
+    public long promoteDueMinors(LocalDate today) {
+        LocalDate cutoff = Patient.adultCutoff(today);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer acquired = transaction.execute(status ->
+                jobCheckpointRepository.acquire(JOB_NAME, cutoff, LocalDateTime.now(clock), leaseEnd()));
+        if (acquired == null || acquired == 0) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long total = 0;
+        try {
+            remaining.set(patientRepository.countMinorsBornOnOrBefore(cutoff));
+            List<PatientDto> batch;
+            do {
+                batch = transaction.execute(status -> promoteBatch(cutoff));
+                promoted.increment(batch.size());
+                total += batch.size();
+                remaining.addAndGet(-batch.size());
+                log.debug("Minor transition: {} promoted, {} remaining", total, remaining.get());
+            } while (batch.size() == batchSize);
+
+            transaction.executeWithoutResult(status ->
+                    jobCheckpointRepository.complete(JOB_NAME, cutoff, LocalDateTime.now(clock)));
+            remaining.set(0);
+            log.info("Minor transition for cutoff {}: {} patients promoted", cutoff, total);
+            return total;
+        } catch (RuntimeException e) {
+            // Committed batches stay done; the rest is retried on the next run
+            transaction.executeWithoutResult(status -> jobCheckpointRepository.release(JOB_NAME, LocalDateTime.now(clock)));
+            log.error("Minor transition for cutoff {} failed after {} patients", cutoff, total, e);
+            throw e;
+        } finally {
+            sample.stop(runs);
+        }
+    }
+
+    // One batch: read it from the index range, flip it with two bulk updates (those with a
+    // free CIN are re-keyed to it), advance the checkpoint; returns the patients as they were
+    private List<PatientDto> promoteBatch(LocalDate cutoff) {
+        List<PatientDto> due = patientRepository.findMinorsBornOnOrBefore(cutoff, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return due;
+        }
+        List<String> ids = due.stream().map(PatientDto::getId).collect(Collectors.toList());
+        List<String> cins = due.stream().map(PatientDto::getCin).filter(Objects::nonNull).collect(Collectors.toList());
+        // A taken CIN would fail the whole UPDATE, and the same batch again on every run
+        Set<String> taken = cins.isEmpty() ? Set.of() : new HashSet<>(patientRepository.findExistingIds(cins));
+        List<String> rekeyable = due.stream()
+                .filter(patient -> patient.getCin() != null && !taken.contains(patient.getCin()))
+                .map(PatientDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!rekeyable.isEmpty()) {
+            patientRepository.promoteToAdultsWithCin(rekeyable, now);
+        }
+        patientRepository.promoteToAdults(ids, now);
+        jobCheckpointRepository.advance(JOB_NAME, due.size(), now, leaseEnd());
+        rekeyed.increment(rekeyable.size());
+        if (!taken.isEmpty()) {
+            rekeySkipped.increment(taken.size());
+            log.warn("Minor transition: CINs {} are already patient IDs, those minors keep their MIN- ID", taken);
+        }
+
+        // Cache entries are dropped now and the search index follows after commit
+        for (PatientDto before : due) {
+            boolean rekey = before.getCin() != null && !taken.contains(before.getCin());
+            eventPublisher.publishEvent(PatientChangedEvent.updated(before, promote(before, rekey, now)));
+        }
+        return due;
+    }
+
+    private PatientDto promote(PatientDto minor, boolean rekey, LocalDateTime now) {
+        return new PatientDto(
+                rekey ? minor.getCin() : minor.getId(),
+                minor.getNom(),
+                minor.getDateNaissance(),
+                minor.getEmail(),
+                minor.getNumeroTelephone(),
+                minor.getAdresse(),
+                minor.getNumeroSecuriteSociale(),
+                minor.getCin(),
+                false,
+                minor.getParentCin(),
+                minor.getCreatedAt(),
+                now,
+                minor.getVersion() + 1
+        );
+    }
+
+    private LocalDateTime leaseEnd() {
+        return LocalDateTime.now(clock).plus(lease);
+    }
+}
@@ -0,0 +1,170 @@
+package com.hospital.patient.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hospital.patient.datasource.ReadYourWrites;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.event.PatientChangedEvent;
+import com.hospital.patient.event.PatientsImportedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Bounded W-TinyLFU cache of PatientDto keyed by ID, with CIN and email resolved to the
+// ID through secondary maps. Hits, misses and evictions are published as cache.* metrics.
+//
+// Invalidation is in-process only: changes committed by this instance evict their entries,
+// those made by other instances are only picked up when the entry expires. With several
+// instances, ttl is how stale a read (and the ETag a 304 is checked against) can be; run a
+// single instance, or keep ttl short enough for that to be acceptable.
+//
+// PatientDto is mutable, so the cache keeps copies of its own and every hit returns a new
+// copy: a caller changing what it got back (an update applying a request to it) can never
+// alter what the next reader sees.
+@Component
+public class PatientCache {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${patient.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${patient.cache.maximum-size:10000}")
+    private long maximumSize;
+    
+    @Value("${patient.cache.ttl:30s}")
+    private Duration ttl;
+    
+    private Cache<String, PatientDto> byId;
+    private Cache<String, String> idByCin;
+    private Cache<String, String> idByEmail;
+    
+    // Bumped on every invalidation; a load that overlapped one is not cached, so a
+    // reader racing a committing writer can never re-insert the old row
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    @PostConstruct
+    void init() {
+        long size = enabled ? maximumSize : 0;
+        byId = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).recordStats().build();
+        idByCin = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).recordStats().build();
+        idByEmail = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).recordStats().build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "patients");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByCin, "patients.cin");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "patients.email");
+    }
+    
+    public PatientDto getById(String id, Supplier<PatientDto> loader) {
+        PatientDto cached = byId.getIfPresent(id);
+        return cached != null ? new PatientDto(cached) : load(loader);
+    }
+    
+    public PatientDto getByCin(String cin, Supplier<PatientDto> loader) {
+        PatientDto cached = resolve(idByCin.getIfPresent(cin));
+        // The mapping may predate a CIN change on that patient; only trust a matching entry
+        if (cached != null && cin.equals(cached.getCin())) {
+            return new PatientDto(cached);
+        }
+        return load(loader);
+    }
+    
+    public PatientDto getByEmail(String email, Supplier<PatientDto> loader) {
+        PatientDto cached = resolve(idByEmail.getIfPresent(email));
+        if (cached != null && email.equals(cached.getEmail())) {
+            return new PatientDto(cached);
+        }
+        return load(loader);
+    }
+    
+    // Entries already cached among the given IDs, in a map the caller may add the others to
+    // (batch lookups)
+    public Map<String, PatientDto> getAllPresent(Collection<String> ids) {
+        Map<String, PatientDto> present = new HashMap<>();
+        byId.getAllPresent(ids).forEach((id, patient) -> present.put(id, new PatientDto(patient)));
+        return present;
+    }
+    
+    // Drop the entry right away (this transaction's own reads must not see the old row)...
+    @EventListener
+    public void onPatientChanged(PatientChangedEvent event) {
+        invalidate(event);
+    }
+    
+    // ...and again once the transaction completes, to evict anything loaded while it was in flight
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void afterPatientChanged(PatientChangedEvent event) {
+        invalidate(event);
+    }
+    
+    // An imported chunk, as one invalidation for all of its patients
+    @EventListener
+    public void onPatientsImported(PatientsImportedEvent event) {
+        invalidate(event);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void afterPatientsImported(PatientsImportedEvent event) {
+        invalidate(event);
+    }
+    
+    private void invalidate(PatientsImportedEvent event) {
+        invalidations.incrementAndGet();
+        for (PatientDto patient : event.getCreated()) {
+            invalidate(patient);
+        }
+    }
+    
+    private void invalidate(PatientChangedEvent event) {
+        invalidations.incrementAndGet();
+        invalidate(event.getBefore());
+        invalidate(event.getAfter());
+    }
+    
+    private void invalidate(PatientDto patient) {
+        if (patient == null) {
+            return;
+        }
+        byId.invalidate(patient.getId());
+        if (patient.getCin() != null) {
+            idByCin.invalidate(patient.getCin());
+        }
+        if (patient.getEmail() != null) {
+            idByEmail.invalidate(patient.getEmail());
+        }
+    }
+    
+    private PatientDto resolve(String id) {
+        return id != null ? byId.getIfPresent(id) : null;
+    }
+    
+    // From the primary: a row read from a lagging replica would be served for the whole TTL
+    private PatientDto load(Supplier<PatientDto> loader) {
+        long stamp = invalidations.get();
+        PatientDto patient = ReadYourWrites.onPrimary(loader);
+        if (invalidations.get() == stamp) {
+            byId.put(patient.getId(), new PatientDto(patient));
+            if (patient.getCin() != null) {
+                idByCin.put(patient.getCin(), patient.getId());
+            }
+            if (patient.getEmail() != null) {
+                idByEmail.put(patient.getEmail(), patient.getId());
+            }
+        }
+        return patient;
+    }
+}
@@ -0,0 +1,424 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.PatientChange;
+import com.hospital.patient.event.PatientChangedEvent;
+import com.hospital.patient.event.PatientsImportedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Server-Sent Events feed of committed patient changes (GET /api/patients/events).
+//
+// Published changes go into one ring of buffer-size events shared by all subscribers; a
+// subscriber is just an SseEmitter and a cursor into the ring, so an idle connection costs
+// no thread (servlet async) and no per-subscriber queue. A small pool of dispatch threads
+// writes to subscribers that have something to send, one drain at a time per subscriber.
+// A subscriber falling buffer-size events behind is disconnected rather than slowing the
+// others down or growing memory; like any other client it reconnects with Last-Event-ID
+// and resumes from the ring. Sends block on the client's socket, so a write that has not
+// returned after write-timeout (a client that stopped reading) gets the subscriber dropped
+// too, and the pool gets a spare thread until that write fails or completes: stalled
+// clients never take the dispatch threads away from the others. A client that cannot
+// resume (first connection, restart of this instance, or what it missed is no longer in
+// the ring) gets a "reset" event instead: load the registry, then apply the events that
+// follow.
+//
+// Event IDs are "<boot>.<seq>": seq counts changes since this instance started.
+@Component
+public class PatientChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientChangeFeed.class);
+
+    static final String RESET = "reset";
+
+    // Events written per drain before other subscribers get a turn
+    private static final int DRAIN_BATCH = 64;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${patient.events.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${patient.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${patient.events.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    // A send still blocked after this long drops its subscriber
+    @Value("${patient.events.write-timeout:10s}")
+    private Duration writeTimeout;
+
+    // Connections are closed after this long; EventSource clients reconnect transparently
+    @Value("${patient.events.timeout:30m}")
+    private Duration timeout;
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Guards the ring and lastSeq; never held while writing to a client
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger connected = new AtomicInteger();
+
+    private Event[] ring;
+    private long lastSeq;
+
+    private ThreadPoolExecutor dispatcher;
+    private ScheduledExecutorService watchdog;
+    private Counter published;
+    private Counter dropped;
+    private Counter stalled;
+
+    @PostConstruct
+    void start() {
+        ring = new Event[bufferSize];
+        AtomicInteger threads = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "patient-events-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "patient-events-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkEvery = Math.max(10, writeTimeout.toMillis() / 4);
+        watchdog.scheduleWithFixedDelay(this::dropStalledSubscribers, checkEvery, checkEvery, TimeUnit.MILLISECONDS);
+        Gauge.builder("patient.events.subscribers", connected, AtomicInteger::get)
+                .description("Open connections on the patient change feed")
+                .register(meterRegistry);
+        published = Counter.builder("patient.events.published")
+                .description("Patient changes published on the change feed")
+                .register(meterRegistry);
+        dropped = Counter.builder("patient.events.dropped")
+                .description("Subscribers disconnected for falling too far behind")
+                .register(meterRegistry);
+        stalled = Counter.builder("patient.events.stalled")
+                .description("Subscribers dropped because a write to them blocked longer than write-timeout")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        watchdog.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    // Only committed changes are published
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        publish(List.of(event.toChange()));
+    }
+
+    // A whole imported chunk in one round: one lock, one wake-up per subscriber
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        List<PatientChange> changes = new ArrayList<>();
+        for (PatientChangedEvent change : event.toChangedEvents()) {
+            changes.add(change.toChange());
+        }
+        publish(changes);
+    }
+
+    private void publish(List<PatientChange> changes) {
+        List<Subscriber> lagging = new ArrayList<>();
+        lock.lock();
+        try {
+            for (PatientChange change : changes) {
+                long seq = ++lastSeq;
+                ring[(int) (seq % bufferSize)] = new Event(seq, bootId + "." + seq, change);
+            }
+            for (Subscriber subscriber : subscribers) {
+                // Its next unsent event has just been overwritten
+                if (lastSeq - subscriber.cursor > bufferSize) {
+                    lagging.add(subscriber);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        published.increment(changes.size());
+        for (Subscriber subscriber : lagging) {
+            dropped.increment();
+            log.debug("Disconnecting slow change feed subscriber at event {}", subscriber.cursor);
+            close(subscriber);
+        }
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    // A new subscriber, resuming after lastEventId when it is still in the ring
+    public SseEmitter subscribe(String lastEventId) {
+        if (connected.incrementAndGet() > maxSubscribers) {
+            connected.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers");
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+
+        lock.lock();
+        try {
+            long resumeAfter = resumePoint(lastEventId);
+            if (resumeAfter < 0) {
+                // Start at the head; the reset carries its ID so the client can resume from there
+                subscriber.cursor = lastSeq;
+                subscriber.reset = true;
+            } else {
+                subscriber.cursor = resumeAfter;
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        // Sends the reset or the missed events, or at least a comment to commit the response
+        subscriber.heartbeatDue = true;
+        schedule(subscriber);
+        return subscriber.emitter;
+    }
+
+    // Keeps idle connections from being cut by proxies, and finds the ones already gone
+    @Scheduled(fixedDelayString = "${patient.events.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    int getSubscriberCount() {
+        return connected.get();
+    }
+
+    // Runs on the watchdog thread. The emitter cannot be completed from here (that waits for
+    // the blocked send), so the subscriber is only removed: its drain completes it once the
+    // send returns, which the servlet container's write timeout bounds.
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            boolean stalledNow;
+            synchronized (subscriber) {
+                stalledNow = subscriber.writing && !subscriber.stalled
+                        && now - subscriber.writeStartedNanos > writeTimeout.toNanos();
+                if (stalledNow) {
+                    // Lent before the write can return and hand it back
+                    subscriber.stalled = true;
+                    subscriber.spareThread.set(true);
+                    resizeDispatcher(1);
+                }
+            }
+            if (stalledNow) {
+                remove(subscriber);
+                stalled.increment();
+                log.debug("Dropping change feed subscriber blocked on a write for over {}", writeTimeout);
+            }
+        }
+    }
+
+    // A spare dispatch thread per blocked write, handed back when the write returns
+    private synchronized void resizeDispatcher(int delta) {
+        int size = dispatcher.getMaximumPoolSize() + delta;
+        if (delta > 0) {
+            dispatcher.setMaximumPoolSize(size);
+            dispatcher.setCorePoolSize(size);
+        } else {
+            dispatcher.setCorePoolSize(size);
+            dispatcher.setMaximumPoolSize(size);
+        }
+    }
+
+    // Sequence number the client has seen, or -1 when it cannot be resumed
+    private long resumePoint(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        int separator = lastEventId.lastIndexOf('.');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(bootId)) {
+            return -1;
+        }
+        try {
+            long seq = Long.parseLong(lastEventId.substring(separator + 1));
+            return seq <= lastSeq && lastSeq - seq <= bufferSize ? seq : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                // Shutting down
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    // Runs on a dispatch thread, never concurrently for the same subscriber
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.reset) {
+                subscriber.reset = false;
+                send(subscriber, SseEmitter.event().name(RESET).id(bootId + "." + subscriber.cursor).data(""));
+            }
+            List<Event> batch = nextBatch(subscriber);
+            if (batch == null) {
+                dropped.increment();
+                log.debug("Disconnecting slow change feed subscriber at event {}", subscriber.cursor);
+                close(subscriber);
+                return;
+            }
+            for (Event event : batch) {
+                send(subscriber, SseEmitter.event()
+                        .id(event.id)
+                        .name(event.change.getType())
+                        .data(event.change));
+                subscriber.cursor = event.seq;
+            }
+            if (batch.isEmpty() && subscriber.heartbeatDue) {
+                send(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+            subscriber.heartbeatDue = false;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already completed)
+            close(subscriber);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+            if (subscriber.spareThread.compareAndSet(true, false)) {
+                // The blocked write has returned
+                resizeDispatcher(-1);
+            }
+        }
+        if (subscriber.stalled) {
+            close(subscriber);
+        } else if (hasPending(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    // One blocking write, timed by the watchdog; a stalled subscriber gets no more
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (subscriber) {
+            if (subscriber.stalled) {
+                throw new IOException("Change feed subscriber stalled");
+            }
+            subscriber.writeStartedNanos = System.nanoTime();
+            subscriber.writing = true;
+        }
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            synchronized (subscriber) {
+                subscriber.writing = false;
+            }
+        }
+    }
+
+    // The events after the subscriber's cursor, or null when the next one has already been
+    // overwritten (the publisher checks lagging subscribers too, but only those it sees)
+    private List<Event> nextBatch(Subscriber subscriber) {
+        lock.lock();
+        try {
+            long from = subscriber.cursor + 1;
+            if (from <= lastSeq - bufferSize) {
+                return null;
+            }
+            long to = Math.min(lastSeq, subscriber.cursor + DRAIN_BATCH);
+            List<Event> batch = new ArrayList<>((int) Math.max(0, to - from + 1));
+            for (long seq = from; seq <= to; seq++) {
+                batch.add(ring[(int) (seq % bufferSize)]);
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasPending(Subscriber subscriber) {
+        lock.lock();
+        try {
+            return subscribers.contains(subscriber) && subscriber.cursor < lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            connected.decrementAndGet();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Last sequence number sent to this client
+        private volatile long cursor;
+        private volatile boolean reset;
+        private volatile boolean heartbeatDue;
+        // Guarded by the subscriber itself: a write in progress since writeStartedNanos, and
+        // whether the watchdog gave up on it
+        private boolean writing;
+        private long writeStartedNanos;
+        private volatile boolean stalled;
+        private final AtomicBoolean spareThread = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private static final class Event {
+        private final long seq;
+        private final String id;
+        private final PatientChange change;
+
+        private Event(long seq, String id, PatientChange change) {
+            this.seq = seq;
+            this.id = id;
+            this.change = change;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.hospital.patient.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hospital.patient.dto.PatientDto;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Writes patients one row at a time so an export never holds more than a buffer in memory
+class PatientExportWriter implements Closeable {
+    
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    
+    private static final String CSV_HEADER = "id,nom,date_naissance,email,numero_telephone,adresse," +
+            "numero_securite_sociale,cin,is_minor,parent_cin,created_at,updated_at";
+    
+    private final ExportFormat format;
+    private final Writer writer;
+    private final ObjectWriter jsonWriter;
+    private long rows;
+    
+    PatientExportWriter(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.jsonWriter = objectMapper.writerFor(PatientDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            // Send the header right away so the client sees the first byte immediately
+            writer.flush();
+        }
+    }
+    
+    public void write(PatientDto patient) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            jsonWriter.writeValue(writer, patient);
+        } else {
+            writeCsvRow(patient);
+        }
+        writer.write('\n');
+        
+        rows++;
+        if (rows == 1 || rows % FLUSH_EVERY_ROWS == 0) {
+            writer.flush();
+        }
+    }
+    
+    public long getRows() { return rows; }
+    
+    // Flush only: the servlet container owns the response stream
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+    
+    private void writeCsvRow(PatientDto patient) throws IOException {
+        writeCsvField(patient.getId());
+        writer.write(',');
+        writeCsvField(patient.getNom());
+        writer.write(',');
+        writeCsvField(patient.getDateNaissance());
+        writer.write(',');
+        writeCsvField(patient.getEmail());
+        writer.write(',');
+        writeCsvField(patient.getNumeroTelephone());
+        writer.write(',');
+        writeCsvField(patient.getAdresse());
+        writer.write(',');
+        writeCsvField(patient.getNumeroSecuriteSociale());
+        writer.write(',');
+        writeCsvField(patient.getCin());
+        writer.write(',');
+        writeCsvField(patient.getIsMinor());
+        writer.write(',');
+        writeCsvField(patient.getParentCin());
+        writer.write(',');
+        writeCsvField(patient.getCreatedAt());
+        writer.write(',');
+        writeCsvField(patient.getUpdatedAt());
+    }
+    
+    // RFC 4180 quoting: only fields containing a separator, quote or line break are quoted
+    private void writeCsvField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length() && !needsQuotes; i++) {
+            char c = text.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,335 @@
+package com.hospital.patient.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.patient.dto.ImportReport;
+import com.hospital.patient.dto.ImportRowResult;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.event.PatientsImportedEvent;
+import com.hospital.patient.exception.InvalidPatientDataException;
+import com.hospital.patient.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Bulk patient import: rows are validated in memory, duplicates and parent CINs are
+// resolved with one IN query per key type and chunk, and each chunk is inserted with
+// JDBC batching in its own transaction. Within a chunk adults go first, so minors can
+// reference parents from the same chunk; a minor whose parent is not known yet waits
+// for a last pass after every other row, where parents from later chunks are in.
+//
+// NDJSON is read and imported a chunk at a time, so memory holds one chunk (plus any
+// waiting minors) whatever the size of the upload. Chunks already imported stay: a
+// malformed line or the row limit ends the import with a failed row in the report.
+@Service
+public class PatientImportService {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${patient.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${patient.import.max-rows:100000}")
+    private int maxRows;
+
+    // Import an NDJSON stream (one patient object per line)
+    public ImportReport importNdjson(InputStream body) {
+        ImportState state = new ImportState();
+        List<Row> chunk = new ArrayList<>();
+        int index = 0;
+        try (MappingIterator<PatientDto> iterator = objectMapper.readerFor(PatientDto.class).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (index == maxRows) {
+                    state.results.add(ImportRowResult.failed(index,
+                            "Bulk import is limited to " + maxRows + " rows; this row and the following ones were not read"));
+                    break;
+                }
+                PatientDto patient = iterator.nextValue();
+                chunk.add(new Row(index++, patient));
+                state.results.add(null);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, state);
+                    chunk = new ArrayList<>();
+                }
+            }
+        } catch (IOException e) {
+            state.results.add(ImportRowResult.failed(index,
+                    "Malformed NDJSON: " + e.getMessage() + "; this row and the following ones were not read"));
+        }
+        importChunk(chunk, state);
+        return finish(state);
+    }
+
+    // Import a list of patients and report the outcome of every row
+    public ImportReport importPatients(List<PatientDto> rows) {
+        checkRowLimit(rows.size());
+        ImportState state = new ImportState();
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Row> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + chunkSize, rows.size()); i++) {
+                chunk.add(new Row(i, rows.get(i)));
+                state.results.add(null);
+            }
+            importChunk(chunk, state);
+        }
+        return finish(state);
+    }
+
+    // Validates the chunk, then inserts its adults and the minors whose parent is known
+    private void importChunk(List<Row> chunk, ImportState state) {
+        List<Row> adults = new ArrayList<>();
+        List<Row> minors = new ArrayList<>();
+        for (Row row : chunk) {
+            String error = validate(row.patient);
+            if (error != null) {
+                state.results.set(row.index, ImportRowResult.failed(row.index, error));
+            } else if (patientService.isMinor(row.patient.getDateNaissance())) {
+                minors.add(row);
+            } else {
+                adults.add(row);
+            }
+        }
+        insertChunk(adults, state, false);
+        insertChunk(minors, state, false);
+    }
+
+    // Last pass: the minors whose parent was not known when their chunk was imported
+    private ImportReport finish(ImportState state) {
+        List<Row> waiting = state.waitingMinors;
+        for (int from = 0; from < waiting.size(); from += chunkSize) {
+            insertChunk(waiting.subList(from, Math.min(from + chunkSize, waiting.size())), state, true);
+        }
+        return new ImportReport(state.results);
+    }
+
+    private void checkRowLimit(int rows) {
+        if (rows > maxRows) {
+            throw new InvalidPatientDataException("Bulk import is limited to " + maxRows + " rows");
+        }
+    }
+
+    // Bean validation plus the service's business rules, without touching the database
+    private String validate(PatientDto patientDto) {
+        if (patientDto == null) {
+            return "Empty row";
+        }
+        Set<ConstraintViolation<PatientDto>> violations = validator.validate(patientDto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        try {
+            patientService.validatePatientData(patientDto);
+            return null;
+        } catch (InvalidPatientDataException e) {
+            return e.getMessage();
+        }
+    }
+
+    private void insertChunk(List<Row> chunk, ImportState state, boolean lastPass) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<PatientDto> patients = chunk.stream().map(row -> row.patient).collect(Collectors.toList());
+
+        // One query per key type for the whole chunk
+        Set<String> existingCins = existing(patients.stream().map(PatientDto::getCin), patientRepository::findExistingCins);
+        Set<String> existingEmails = existing(patients.stream().map(PatientDto::getEmail), patientRepository::findExistingEmails);
+        Set<String> existingSsns = existing(patients.stream().map(PatientDto::getNumeroSecuriteSociale),
+                patientRepository::findExistingNumerosSecuriteSociale);
+        Set<String> existingParents = existing(patients.stream()
+                        .map(PatientDto::getParentCin)
+                        .filter(parentCin -> !state.importedCins.contains(parentCin)),
+                patientRepository::findExistingCins);
+
+        List<Row> accepted = new ArrayList<>();
+        for (Row row : chunk) {
+            String parentCin = row.patient.getParentCin();
+            if (!lastPass && patientService.isMinor(row.patient.getDateNaissance())
+                    && !state.importedCins.contains(parentCin) && !existingParents.contains(parentCin)) {
+                // Its parent may come in a later chunk
+                state.waitingMinors.add(row);
+                continue;
+            }
+            String error = checkKeys(row.patient, existingCins, existingEmails, existingSsns, existingParents, state);
+            if (error != null) {
+                state.results.set(row.index, ImportRowResult.failed(row.index, error));
+            } else {
+                accepted.add(row);
+            }
+        }
+        insert(accepted, state);
+    }
+
+    private String checkKeys(PatientDto patientDto, Set<String> existingCins, Set<String> existingEmails,
+                             Set<String> existingSsns, Set<String> existingParents, ImportState state) {
+        String cin = patientDto.getCin();
+        String email = patientDto.getEmail();
+        String ssn = patientDto.getNumeroSecuriteSociale();
+
+        if (cin != null && (existingCins.contains(cin) || state.seenCins.contains(cin))) {
+            return "Patient with CIN " + cin + " already exists";
+        }
+        if (email != null && (existingEmails.contains(email) || state.seenEmails.contains(email))) {
+            return "Patient with email " + email + " already exists";
+        }
+        if (ssn != null && (existingSsns.contains(ssn) || state.seenSsns.contains(ssn))) {
+            return "Patient with SSN " + ssn + " already exists";
+        }
+        if (patientService.isMinor(patientDto.getDateNaissance())) {
+            String parentCin = patientDto.getParentCin();
+            if (!state.importedCins.contains(parentCin) && !existingParents.contains(parentCin)) {
+                return "Parent with CIN " + parentCin + " not found";
+            }
+        }
+
+        // Claim the keys only once the row is accepted, so a rejected row blocks nothing
+        if (cin != null) {
+            state.seenCins.add(cin);
+        }
+        if (email != null) {
+            state.seenEmails.add(email);
+        }
+        if (ssn != null) {
+            state.seenSsns.add(ssn);
+        }
+        return null;
+    }
+
+    private void insert(List<Row> accepted, ImportState state) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Patient> patients = new ArrayList<>();
+        for (Row row : accepted) {
+            Patient patient = patientService.convertToEntity(row.patient);
+            patientService.generatePatientId(patient);
+            patients.add(patient);
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> persist(patients));
+            for (int k = 0; k < accepted.size(); k++) {
+                markCreated(accepted.get(k).index, patients.get(k), state);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer claimed one of the keys since the checks ran: retry row
+            // by row (with fresh entities, the failed ones are no longer "new") to find it
+            for (int k = 0; k < accepted.size(); k++) {
+                Row row = accepted.get(k);
+                Patient retry = patientService.convertToEntity(row.patient);
+                retry.setId(patients.get(k).getId());
+                try {
+                    transaction.executeWithoutResult(status -> persist(List.of(retry)));
+                    markCreated(row.index, retry, state);
+                } catch (DataIntegrityViolationException rowError) {
+                    state.results.set(row.index, ImportRowResult.failed(row.index,
+                            patientService.translateDuplicate(retry, rowError).getMessage()));
+                    // Not imported after all: a later row may still use its keys
+                    state.release(row.patient);
+                }
+            }
+        }
+    }
+
+    // Inserts go out as JDBC batches on flush (hibernate.jdbc.batch_size); the persistence
+    // context is cleared afterwards so it never grows beyond one chunk. Listeners get the
+    // chunk as one event.
+    private void persist(List<Patient> patients) {
+        patientRepository.saveAll(patients);
+        patientRepository.flush();
+        List<PatientDto> created = new ArrayList<>(patients.size());
+        for (Patient patient : patients) {
+            created.add(patientService.convertToDto(patient));
+        }
+        eventPublisher.publishEvent(new PatientsImportedEvent(created));
+        entityManager.clear();
+    }
+
+    private void markCreated(int index, Patient patient, ImportState state) {
+        state.results.set(index, ImportRowResult.created(index, patient.getId()));
+        if (patient.getCin() != null) {
+            state.importedCins.add(patient.getCin());
+        }
+    }
+
+    private Set<String> existing(Stream<String> keys, Function<Collection<String>, List<String>> query) {
+        Set<String> distinct = keys.filter(key -> key != null).collect(Collectors.toSet());
+        return distinct.isEmpty() ? Set.of() : new HashSet<>(query.apply(distinct));
+    }
+
+    // One row of the import and its position in the request
+    private static final class Row {
+        private final int index;
+        private final PatientDto patient;
+
+        private Row(int index, PatientDto patient) {
+            this.index = index;
+            this.patient = patient;
+        }
+    }
+
+    // Keys claimed so far by this import, the report so far and the minors waiting for a parent
+    private static final class ImportState {
+        private final Set<String> seenCins = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> seenSsns = new HashSet<>();
+        private final Set<String> importedCins = new HashSet<>();
+        private final List<ImportRowResult> results = new ArrayList<>();
+        private final List<Row> waitingMinors = new ArrayList<>();
+
+        private void release(PatientDto patient) {
+            if (patient.getCin() != null) {
+                seenCins.remove(patient.getCin());
+            }
+            if (patient.getEmail() != null) {
+                seenEmails.remove(patient.getEmail());
+            }
+            if (patient.getNumeroSecuriteSociale() != null) {
+                seenSsns.remove(patient.getNumeroSecuriteSociale());
+            }
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.event.PatientChangedEvent;
+import com.hospital.patient.event.PatientsImportedEvent;
+import com.hospital.patient.exception.InvalidPatientDataException;
+import com.hospital.patient.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Embedded Lucene index over Patient.nom. Names are lower-cased and accent-folded
+// ("Hélène" matches "helene"); each query term matches exactly, as a prefix or fuzzily,
+// ranked by relevance with the ID as tie-breaker so pages are stable.
+//
+// A rebuild writes a complete index aside and swaps it in at once; until then searches keep
+// using the current one. Changes committed while it builds are recorded and re-applied on
+// top, so a patient deleted meanwhile does not come back from the database stream.
+@Component
+public class PatientSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String NOM = "nom";
+
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.STRING));
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Empty: in-memory index rebuilt on every start; otherwise a directory on local disk
+    @Value("${patient.search.index-path:}")
+    private String indexPath;
+
+    @Value("${patient.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new FoldingAnalyzer();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Changes and searcher refreshes share the read side; swapping in a rebuilt index takes
+    // the write side, so nothing sees the index between its old and new content
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Changes applied while a rebuild reads the database; null when none is running
+    private volatile Queue<PatientChangedEvent> changesDuringRebuild;
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            log.info("Rebuilt patient search index with {} documents", rebuild());
+        }
+    }
+
+    // Only committed changes are indexed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        index(List.of(event));
+    }
+
+    // An imported chunk under one lock acquisition
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        index(event.toChangedEvents());
+    }
+
+    private void index(List<PatientChangedEvent> events) {
+        indexLock.readLock().lock();
+        try {
+            for (PatientChangedEvent event : events) {
+                apply(event);
+            }
+            Queue<PatientChangedEvent> pending = changesDuringRebuild;
+            if (pending != null) {
+                pending.addAll(events);
+            }
+            dirty.set(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Re-index every patient from the database (admin operation)
+    public long rebuild() {
+        rebuildLock.lock();
+        try {
+            // Taken with the write side: every change from here on is recorded, and the ones
+            // before are committed, so the stream below reads them
+            indexLock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ConcurrentLinkedQueue<>();
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+            Path scratchPath = indexPath.isBlank() ? null : Path.of(indexPath + ".rebuild");
+            try (Directory scratch = scratchPath == null ? new ByteBuffersDirectory() : FSDirectory.open(scratchPath)) {
+                long count = buildInto(scratch);
+                swapIn(scratch);
+                discard(scratch, scratchPath);
+                return count;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            changesDuringRebuild = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    private long buildInto(Directory scratch) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Long indexed = transaction.execute(status -> {
+            try (Stream<PatientDto> patients = patientRepository.streamAll();
+                 IndexWriter builder = new IndexWriter(scratch, new IndexWriterConfig(analyzer)
+                         .setOpenMode(IndexWriterConfig.OpenMode.CREATE))) {
+                long count = 0;
+                Iterator<PatientDto> iterator = patients.iterator();
+                while (iterator.hasNext()) {
+                    PatientDto patient = iterator.next();
+                    builder.addDocument(toDocument(patient.getId(), patient.getNom()));
+                    count++;
+                }
+                builder.commit();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return indexed != null ? indexed : 0;
+    }
+
+    // Replace the live content with the rebuilt segments (a file copy, no re-analysis), then
+    // re-apply the changes recorded meanwhile and publish it all as one refresh
+    private void swapIn(Directory scratch) throws IOException {
+        indexLock.writeLock().lock();
+        try {
+            writer.deleteAll();
+            writer.addIndexes(scratch);
+            for (PatientChangedEvent change : changesDuringRebuild) {
+                apply(change);
+            }
+            changesDuringRebuild = null;
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PatientChangedEvent event) throws IOException {
+        if (event.getBefore() != null && (event.getAfter() == null || event.isIdChanged())) {
+            writer.deleteDocuments(new Term(ID, event.getBefore().getId()));
+        }
+        PatientDto after = event.getAfter();
+        if (after != null) {
+            writer.updateDocument(new Term(ID, after.getId()), toDocument(after.getId(), after.getNom()));
+        }
+    }
+
+    // The on-disk scratch index is only needed until it has been copied in
+    private static void discard(Directory scratch, Path scratchPath) throws IOException {
+        if (scratchPath == null) {
+            return;
+        }
+        for (String file : scratch.listAll()) {
+            scratch.deleteFile(file);
+        }
+        Files.deleteIfExists(scratchPath);
+    }
+
+    // Persist pending changes so an on-disk index survives a restart
+    @Scheduled(fixedDelayString = "${patient.search.commit-interval-ms:60000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    // One ranked page of patient IDs; "after" is the previous page's next token
+    public Hits search(String text, String after, int size) {
+        Query query = buildQuery(text);
+        IndexSearcher searcher = null;
+        try {
+            // Reopen lazily: a burst of writes costs one refresh at the next search
+            if (dirty.getAndSet(false)) {
+                refresh();
+            }
+            searcher = searcherManager.acquire();
+            TopFieldDocs top = searcher.searchAfter(decodeAfter(after), query, size + 1, RANKING, true);
+
+            List<String> ids = new ArrayList<>();
+            FieldDoc last = null;
+            for (int i = 0; i < Math.min(size, top.scoreDocs.length); i++) {
+                last = (FieldDoc) top.scoreDocs[i];
+                ids.add(((BytesRef) last.fields[1]).utf8ToString());
+            }
+            String next = top.scoreDocs.length > size ? encodeAfter(last) : null;
+            return new Hits(ids, next);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Could not release index searcher", e);
+                }
+            }
+        }
+    }
+
+    // Never while a rebuilt index is being swapped in
+    private void refresh() throws IOException {
+        indexLock.readLock().lock();
+        try {
+            searcherManager.maybeRefresh();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Every query term must match the name exactly (best), as a prefix, or within an edit distance
+    private Query buildQuery(String text) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new InvalidPatientDataException("Search text must contain at least one letter or digit");
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder alternatives = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NOM, term)), 3f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(new Term(NOM, term)), 2f), BooleanClause.Occur.SHOULD);
+            if (term.length() >= 3) {
+                int maxEdits = term.length() > 5 ? 2 : 1;
+                alternatives.add(new FuzzyQuery(new Term(NOM, term), maxEdits, 1), BooleanClause.Occur.SHOULD);
+            }
+            query.add(alternatives.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(NOM, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private Document toDocument(String id, String nom) {
+        Document document = new Document();
+        document.add(new StringField(ID, id, Field.Store.YES));
+        document.add(new SortedDocValuesField(ID, new BytesRef(id)));
+        document.add(new TextField(NOM, nom != null ? nom : "", Field.Store.NO));
+        return document;
+    }
+
+    // Tokens carry the last hit's sort values (score, ID), base64url-encoded
+    private String encodeAfter(FieldDoc last) {
+        String token = last.fields[0] + ":" + ((BytesRef) last.fields[1]).utf8ToString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ScoreDoc decodeAfter(String after) {
+        if (after == null || after.isEmpty()) {
+            return null;
+        }
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            int separator = token.indexOf(':');
+            float score = Float.parseFloat(token.substring(0, separator));
+            BytesRef id = new BytesRef(token.substring(separator + 1));
+            // Integer.MAX_VALUE as doc: ties on (score, ID) are the last hit itself, which is skipped
+            return new FieldDoc(Integer.MAX_VALUE, score, new Object[] {score, id});
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidPatientDataException("Invalid page cursor: " + after);
+        }
+    }
+
+    // A ranked page of IDs and the token for the next page (null on the last page)
+    public static class Hits {
+        private final List<String> ids;
+        private final String next;
+
+        public Hits(List<String> ids, String next) {
+            this.ids = ids;
+            this.next = next;
+        }
+
+        public List<String> getIds() { return ids; }
+
+        public String getNext() { return next; }
+    }
+
+    // Standard tokenization, lower-casing and accent folding, at index and query time
+    private static final class FoldingAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
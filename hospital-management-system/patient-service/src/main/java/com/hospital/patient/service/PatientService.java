@@ -1,19 +1,45 @@
 package com.hospital.patient.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.patient.dto.BatchGetResult;
+import com.hospital.patient.dto.CursorPage;
+import com.hospital.patient.dto.HouseholdDto;
 import com.hospital.patient.dto.PatientDto;
 import com.hospital.patient.entity.Patient;
+import com.hospital.patient.event.PatientChangedEvent;
+import com.hospital.patient.exception.PatientModifiedException;
 import com.hospital.patient.exception.PatientNotFoundException;
 import com.hospital.patient.exception.DuplicatePatientException;
 import com.hospital.patient.exception.InvalidPatientDataException;
 import com.hospital.patient.repository.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.Period;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -22,20 +48,45 @@ public class PatientService {
     @Autowired
     private PatientRepository patientRepository;
     
+    @Autowired
+    private MinorIdAllocator minorIdAllocator;
+    
+    @Autowired
+    private PatientCache patientCache;
+    
+    @Autowired
+    private PatientSearchIndex patientSearchIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    
+    @Value("${patient.pagination.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${patient.pagination.max-size:500}")
+    private int maxPageSize;
+    
+    @Value("${patient.batch-get.max-keys:5000}")
+    private int maxBatchGetKeys;
+    
+    @Value("${patient.batch-get.chunk-size:500}")
+    private int batchGetChunkSize;
+    
+    @Value("${patient.household.max-batch:200}")
+    private int maxHouseholdBatch;
+    
     // Create a new patient
     public PatientDto createPatient(PatientDto patientDto) {
-        // Validate patient data
+        // Validate patient data (no database access)
         validatePatientData(patientDto);
         
-        // Check if email already exists
-        if (patientDto.getEmail() != null && patientRepository.existsByEmail(patientDto.getEmail())) {
-            throw new DuplicatePatientException("Patient with email " + patientDto.getEmail() + " already exists");
-        }
-        
-        // Check if social security number already exists
-        if (patientDto.getNumeroSecuriteSociale() != null && 
-            patientRepository.existsByNumeroSecuriteSociale(patientDto.getNumeroSecuriteSociale())) {
-            throw new DuplicatePatientException("Patient with SSN " + patientDto.getNumeroSecuriteSociale() + " already exists");
+        // A minor's parent must exist: the only lookup before the insert
+        if (isMinor(patientDto.getDateNaissance())) {
+            verifyParentExists(patientDto.getParentCin());
         }
         
         Patient patient = convertToEntity(patientDto);
@@ -43,76 +94,185 @@ public class PatientService {
         // Generate ID based on age
         generatePatientId(patient);
         
-        Patient savedPatient = patientRepository.save(patient);
-        return convertToDto(savedPatient);
+        // CIN, email and SSN uniqueness is enforced by the unique keys on insert
+        Patient savedPatient = saveAndFlush(patient);
+        PatientDto created = convertToDto(savedPatient);
+        eventPublisher.publishEvent(PatientChangedEvent.created(created));
+        return created;
     }
     
-    // Get all patients
+    // Get all patients, one keyset page at a time
     @Transactional(readOnly = true)
-    public List<PatientDto> getAllPatients() {
-        return patientRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPage<PatientDto> getAllPatients(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(patientRepository.findPageAfter(decodeCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
     }
     
-    // Get patient by ID
+    // ETag of the patient listing: one aggregate over the table's indexes, no lock taken
     @Transactional(readOnly = true)
+    public String getPatientsETag() {
+        return ETags.of(patientRepository.findCollectionVersion());
+    }
+    
+    // Get patient by ID (cached). SUPPORTS: a cache hit never opens a transaction;
+    // on a miss the repository runs in its own read-only transaction.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public PatientDto getPatientById(String id) {
-        Patient patient = patientRepository.findById(id)
-                .orElseThrow(() -> new PatientNotFoundException("Patient not found with id: " + id));
-        return convertToDto(patient);
+        return patientCache.getById(id, () -> patientRepository.findDtoById(id)
+                .orElseThrow(() -> new PatientNotFoundException("Patient not found with id: " + id)));
     }
     
-    // Get patient by CIN
+    // Resolve many IDs at once: cached entries first, then the rest with IN queries of at
+    // most batch-get.chunk-size IDs. Results keep the request order (duplicates collapsed);
+    // unknown IDs are reported as missing instead of failing the call.
     @Transactional(readOnly = true)
+    public BatchGetResult<PatientDto> getPatientsByIds(List<String> ids) {
+        Set<String> keys = new LinkedHashSet<>(ids);
+        if (keys.contains(null)) {
+            throw new InvalidPatientDataException("Patient IDs must not be null");
+        }
+        if (keys.size() > maxBatchGetKeys) {
+            throw new InvalidPatientDataException("At most " + maxBatchGetKeys + " IDs per batch");
+        }
+        Map<String, PatientDto> found = patientCache.getAllPresent(keys);
+        List<String> uncached = keys.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toList());
+        for (int from = 0; from < uncached.size(); from += batchGetChunkSize) {
+            List<String> chunk = uncached.subList(from, Math.min(from + batchGetChunkSize, uncached.size()));
+            for (PatientDto patient : patientRepository.findDtosByIdIn(chunk)) {
+                found.put(patient.getId(), patient);
+            }
+        }
+        List<PatientDto> content = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : keys) {
+            PatientDto patient = found.get(id);
+            if (patient != null) {
+                content.add(patient);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchGetResult<>(content, missing);
+    }
+    
+    // Get patient by CIN (cached)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public PatientDto getPatientByCin(String cin) {
-        Patient patient = patientRepository.findByCin(cin)
-                .orElseThrow(() -> new PatientNotFoundException("Patient not found with CIN: " + cin));
-        return convertToDto(patient);
+        return patientCache.getByCin(cin, () -> patientRepository.findDtoByCin(cin)
+                .orElseThrow(() -> new PatientNotFoundException("Patient not found with CIN: " + cin)));
     }
     
-    // Get patient by email
-    @Transactional(readOnly = true)
+    // Get patient by email (cached)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public PatientDto getPatientByEmail(String email) {
-        Patient patient = patientRepository.findByEmail(email)
-                .orElseThrow(() -> new PatientNotFoundException("Patient not found with email: " + email));
-        return convertToDto(patient);
+        return patientCache.getByEmail(email, () -> patientRepository.findDtoByEmail(email)
+                .orElseThrow(() -> new PatientNotFoundException("Patient not found with email: " + email)));
     }
     
     // Get minors by parent CIN
     @Transactional(readOnly = true)
-    public List<PatientDto> getMinorsByParentCin(String parentCin) {
-        return patientRepository.findByParentCin(parentCin)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPage<PatientDto> getMinorsByParentCin(String parentCin, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(patientRepository.findByParentCinPageAfter(parentCin, decodeCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
     }
     
-    // Get all minors
+    // A guardian and their minors, in one query
     @Transactional(readOnly = true)
-    public List<PatientDto> getAllMinors() {
-        return patientRepository.findByIsMinorTrue()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public HouseholdDto getHousehold(String parentCin) {
+        List<HouseholdDto> households = getHouseholds(List.of(parentCin));
+        if (households.isEmpty()) {
+            throw new PatientNotFoundException("Patient not found with CIN: " + parentCin);
+        }
+        return households.get(0);
+    }
+    
+    // Households of many guardians from the same single query, in request order;
+    // CINs without a patient are left out
+    @Transactional(readOnly = true)
+    public List<HouseholdDto> getHouseholds(Collection<String> parentCins) {
+        Set<String> cins = new LinkedHashSet<>(parentCins);
+        if (cins.size() > maxHouseholdBatch) {
+            throw new InvalidPatientDataException("At most " + maxHouseholdBatch + " households per request");
+        }
+        if (cins.isEmpty()) {
+            return List.of();
+        }
+        LocalDate adultCutoff = Patient.adultCutoff(LocalDate.now());
+        Map<String, PatientDto> parents = new HashMap<>();
+        Map<String, List<PatientDto>> minors = new HashMap<>();
+        for (PatientDto member : patientRepository.findHouseholdMembers(cins, adultCutoff)) {
+            if (member.getCin() != null && cins.contains(member.getCin())) {
+                parents.put(member.getCin(), member);
+            }
+            // A guardian can also be listed as someone else's child; only current minors count
+            if (member.getParentCin() != null && cins.contains(member.getParentCin())
+                    && Boolean.TRUE.equals(member.getIsMinor())
+                    && Patient.isMinorOn(member.getDateNaissance(), LocalDate.now())) {
+                minors.computeIfAbsent(member.getParentCin(), cin -> new ArrayList<>()).add(member);
+            }
+        }
+        List<HouseholdDto> households = new ArrayList<>();
+        for (String cin : cins) {
+            PatientDto parent = parents.get(cin);
+            if (parent != null) {
+                households.add(new HouseholdDto(parent, minors.getOrDefault(cin, List.of())));
+            }
+        }
+        return households;
+    }
+    
+    // Get all minors. Patients who turned 18 since the last MinorTransitionJob run are
+    // still flagged; the birth-date bound leaves them out until the job flips them.
+    @Transactional(readOnly = true)
+    public CursorPage<PatientDto> getAllMinors(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        LocalDate adultCutoff = Patient.adultCutoff(LocalDate.now());
+        return toPage(patientRepository.findMinorsPageAfter(adultCutoff, decodeCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+    
+    // Stream every patient to the output in the given format; rows are projected
+    // straight to DTOs, so nothing accumulates in the persistence context
+    @Transactional(readOnly = true)
+    public long exportPatients(ExportFormat format, OutputStream outputStream) throws IOException {
+        try (Stream<PatientDto> patients = patientRepository.streamAll();
+             PatientExportWriter writer = new PatientExportWriter(format, outputStream, objectMapper)) {
+            Iterator<PatientDto> iterator = patients.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+            return writer.getRows();
+        }
     }
     
     // Update patient
     public PatientDto updatePatient(String id, PatientDto patientDto) {
+        return updatePatient(id, patientDto, null);
+    }
+    
+    // Update patient if it still matches the client's If-Match (null: unconditional).
+    // A write racing this one after the check is caught by the version column on flush.
+    public PatientDto updatePatient(String id, PatientDto patientDto, String ifMatch) {
         Patient existingPatient = patientRepository.findById(id)
                 .orElseThrow(() -> new PatientNotFoundException("Patient not found with id: " + id));
+        if (!ETags.matches(ifMatch, ETags.of(convertToDto(existingPatient)))) {
+            throw new PatientModifiedException("Patient " + id + " was modified since it was read");
+        }
         
         // Validate updated data
         validatePatientData(patientDto);
         
-        // Check if email is being updated and if it already exists
-        if (patientDto.getEmail() != null && 
-            !existingPatient.getEmail().equals(patientDto.getEmail()) && 
-            patientRepository.existsByEmail(patientDto.getEmail())) {
-            throw new DuplicatePatientException("Patient with email " + patientDto.getEmail() + " already exists");
+        // Only look the parent up again when a minor is re-attached to someone else
+        if (isMinor(patientDto.getDateNaissance()) &&
+            !patientDto.getParentCin().equals(existingPatient.getParentCin())) {
+            verifyParentExists(patientDto.getParentCin());
         }
         
+        PatientDto before = convertToDto(existingPatient);
+        boolean wasMinor = Boolean.TRUE.equals(existingPatient.getIsMinor());
+        boolean isMinor = isMinor(patientDto.getDateNaissance());
+        
         // Update fields
         existingPatient.setNom(patientDto.getNom());
         existingPatient.setDateNaissance(patientDto.getDateNaissance());
@@ -122,82 +282,127 @@ public class PatientService {
         existingPatient.setNumeroSecuriteSociale(patientDto.getNumeroSecuriteSociale());
         existingPatient.setCin(patientDto.getCin());
         existingPatient.setParentCin(patientDto.getParentCin());
+        // A minor who became an adult is flipped by the re-key below
+        boolean rekey = wasMinor && !isMinor;
+        existingPatient.setIsMinor(isMinor || rekey);
         
-        // Check if age status changed (minor to adult or vice versa)
-        if (patientDto.getDateNaissance() != null) {
-            int age = Period.between(patientDto.getDateNaissance(), LocalDate.now()).getYears();
-            boolean isMinor = age < 18;
-            
-            // If status changed from minor to adult, need to update ID
-            if (existingPatient.getIsMinor() && !isMinor) {
-                // Adult now needs CIN
-                if (patientDto.getCin() == null || patientDto.getCin().trim().isEmpty()) {
-                    throw new InvalidPatientDataException("CIN is required for adult patients");
-                }
-                existingPatient.setId(patientDto.getCin());
-            }
-            
-            existingPatient.setIsMinor(isMinor);
+        // Email, CIN and SSN collisions surface from the unique keys on flush.
+        // A minor who became an adult is re-keyed to their CIN (validated as present above).
+        Patient updatedPatient = saveAndFlush(existingPatient);
+        if (rekey) {
+            updatedPatient = rekeyToCin(existingPatient);
         }
         
-        Patient updatedPatient = patientRepository.save(existingPatient);
-        return convertToDto(updatedPatient);
+        PatientDto after = convertToDto(updatedPatient);
+        eventPublisher.publishEvent(PatientChangedEvent.updated(before, after));
+        return after;
     }
     
     // Delete patient
     public void deletePatient(String id) {
-        if (!patientRepository.existsById(id)) {
-            throw new PatientNotFoundException("Patient not found with id: " + id);
-        }
-        patientRepository.deleteById(id);
+        Patient patient = patientRepository.findById(id)
+                .orElseThrow(() -> new PatientNotFoundException("Patient not found with id: " + id));
+        patientRepository.delete(patient);
+        eventPublisher.publishEvent(PatientChangedEvent.deleted(convertToDto(patient)));
     }
     
-    // Search patients by name
+    // Search patients by name through the full-text index (ranked, accent-insensitive,
+    // prefix and fuzzy matching); only the page's rows are read from the database
     @Transactional(readOnly = true)
-    public List<PatientDto> searchPatientsByName(String nom) {
-        return patientRepository.findByNomContainingIgnoreCase(nom)
+    public CursorPage<PatientDto> searchPatientsByName(String nom, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        PatientSearchIndex.Hits hits = patientSearchIndex.search(nom, cursor, pageSize);
+        Map<String, PatientDto> patients = patientRepository.findDtosByIdIn(hits.getIds())
+                .stream()
+                .collect(Collectors.toMap(PatientDto::getId, Function.identity()));
+        List<PatientDto> content = hits.getIds()
                 .stream()
-                .map(this::convertToDto)
+                .map(patients::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new CursorPage<>(content, hits.getNext());
+    }
+    
+    // Rebuild the search index from the database
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuildSearchIndex() {
+        return patientSearchIndex.rebuild();
     }
     
     // Validate patient data
-    private void validatePatientData(PatientDto patientDto) {
+    void validatePatientData(PatientDto patientDto) {
         if (patientDto.getDateNaissance() == null) {
             throw new InvalidPatientDataException("Birth date is required");
         }
         
-        int age = Period.between(patientDto.getDateNaissance(), LocalDate.now()).getYears();
-        boolean isMinor = age < 18;
-        
-        if (!isMinor) {
+        if (!isMinor(patientDto.getDateNaissance())) {
             // Adult patient must have CIN
             if (patientDto.getCin() == null || patientDto.getCin().trim().isEmpty()) {
                 throw new InvalidPatientDataException("CIN is required for adult patients");
             }
-            
-            // Check if CIN already exists
-            if (patientRepository.existsByCin(patientDto.getCin())) {
-                throw new DuplicatePatientException("Patient with CIN " + patientDto.getCin() + " already exists");
-            }
         } else {
             // Minor patient must have parent CIN
             if (patientDto.getParentCin() == null || patientDto.getParentCin().trim().isEmpty()) {
                 throw new InvalidPatientDataException("Parent CIN is required for minor patients");
             }
-            
-            // Verify parent exists
-            if (!patientRepository.existsByCin(patientDto.getParentCin())) {
-                throw new InvalidPatientDataException("Parent with CIN " + patientDto.getParentCin() + " not found");
-            }
         }
     }
     
+    boolean isMinor(LocalDate dateNaissance) {
+        return Patient.isMinorOn(dateNaissance, LocalDate.now());
+    }
+    
+    // Verify parent exists
+    private void verifyParentExists(String parentCin) {
+        if (!patientRepository.existsByCin(parentCin)) {
+            throw new InvalidPatientDataException("Parent with CIN " + parentCin + " not found");
+        }
+    }
+    
+    // The primary key of a managed entity cannot change, so the row is re-keyed in place by
+    // the statement MinorTransitionJob uses, keeping its version and creation time; a CIN
+    // already used as an ID is reported like any duplicate CIN
+    private Patient rekeyToCin(Patient patient) {
+        try {
+            patientRepository.promoteToAdultsWithCin(List.of(patient.getId()), LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicate(patient, e);
+        }
+        return patientRepository.findById(patient.getCin())
+                .orElseThrow(() -> new IllegalStateException("Re-keyed patient not found: " + patient.getCin()));
+    }
+    
+    // Write through to the database now so unique-key violations are raised here
+    private Patient saveAndFlush(Patient patient) {
+        try {
+            return patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicate(patient, e);
+        }
+    }
+    
+    // Map a unique-key violation to the field that collided, with the same messages the
+    // former existsBy* pre-checks produced; constraint names come from V1__create_patients.sql
+    RuntimeException translateDuplicate(Patient patient, DataIntegrityViolationException e) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (detail.contains("uk_patients_email")) {
+            return new DuplicatePatientException("Patient with email " + patient.getEmail() + " already exists");
+        }
+        if (detail.contains("uk_patients_numero_securite_sociale")) {
+            return new DuplicatePatientException("Patient with SSN " + patient.getNumeroSecuriteSociale() + " already exists");
+        }
+        // Adults use their CIN as primary key, so a key collision is a duplicate CIN too
+        if (detail.contains("uk_patients_cin") || detail.contains("primary")) {
+            return new DuplicatePatientException("Patient with CIN " + patient.getCin() + " already exists");
+        }
+        return e;
+    }
+    
     // Generate patient ID
-    private void generatePatientId(Patient patient) {
+    void generatePatientId(Patient patient) {
         if (patient.getIsMinor()) {
-            // Generate auto ID for minor: MIN-XXXX
-            Integer nextId = patientRepository.getNextMinorId();
+            // Generate auto ID for minor: MIN-XXXX (block-allocated, no table scan)
+            long nextId = minorIdAllocator.nextId();
             patient.setId(String.format("MIN-%04d", nextId));
         } else {
             // Use CIN as ID for adults
@@ -205,8 +410,44 @@ public class PatientService {
         }
     }
     
+    // Clamp the requested page size to the configured bounds
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new InvalidPatientDataException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+    
+    // Rows are fetched with one extra element so the next cursor can be emitted without a COUNT query
+    private CursorPage<PatientDto> toPage(List<PatientDto> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<PatientDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String next = hasNext ? encodeCursor(content.get(content.size() - 1).getId()) : null;
+        return new CursorPage<>(content, next);
+    }
+    
+    // Cursors are the last returned ID, base64url-encoded so clients treat them as opaque
+    private String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // A missing cursor means the first page: every ID sorts after the empty string
+    private String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPatientDataException("Invalid page cursor: " + cursor);
+        }
+    }
+    
     // Convert Entity to DTO
-    private PatientDto convertToDto(Patient patient) {
+    PatientDto convertToDto(Patient patient) {
         return new PatientDto(
                 patient.getId(),
                 patient.getNom(),
@@ -219,12 +460,13 @@ public class PatientService {
                 patient.getIsMinor(),
                 patient.getParentCin(),
                 patient.getCreatedAt(),
-                patient.getUpdatedAt()
+                patient.getUpdatedAt(),
+                patient.getVersion()
         );
     }
     
     // Convert DTO to Entity
-    private Patient convertToEntity(PatientDto patientDto) {
+    Patient convertToEntity(PatientDto patientDto) {
         return new Patient(
                 patientDto.getNom(),
                 patientDto.getDateNaissance(),
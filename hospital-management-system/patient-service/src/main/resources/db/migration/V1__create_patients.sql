@@ -0,0 +1,31 @@
+-- Patients: unique keys back the existsBy*/findBy* lookups on email, CIN and SSN
+CREATE TABLE patients (
+    id                      VARCHAR(255) NOT NULL,
+    nom                     VARCHAR(255) NOT NULL,
+    date_naissance          DATE         NOT NULL,
+    email                   VARCHAR(255),
+    numero_telephone        VARCHAR(255),
+    adresse                 VARCHAR(255),
+    numero_securite_sociale VARCHAR(255),
+    cin                     VARCHAR(255),
+    is_minor                BOOLEAN,
+    parent_cin              VARCHAR(255),
+    created_at              TIMESTAMP(6),
+    updated_at              TIMESTAMP(6),
+    CONSTRAINT pk_patients PRIMARY KEY (id),
+    CONSTRAINT uk_patients_email UNIQUE (email),
+    CONSTRAINT uk_patients_cin UNIQUE (cin),
+    CONSTRAINT uk_patients_numero_securite_sociale UNIQUE (numero_securite_sociale)
+);
+
+-- Secondary lookups; id is appended so keyset pages (ORDER BY id) read straight from the index
+CREATE INDEX idx_patients_parent_cin ON patients (parent_cin, id);
+CREATE INDEX idx_patients_is_minor ON patients (is_minor, id);
+CREATE INDEX idx_patients_numero_telephone ON patients (numero_telephone);
+
+-- Block reservations for MinorIdAllocator
+CREATE TABLE id_blocks (
+    name       VARCHAR(64) NOT NULL,
+    next_value BIGINT      NOT NULL,
+    CONSTRAINT pk_id_blocks PRIMARY KEY (name)
+);
@@ -0,0 +1,16 @@
+-- Minors by birth date: those who have turned 18 are one range scan for MinorTransitionJob
+CREATE INDEX idx_patients_minor_birth ON patients (is_minor, date_naissance, id);
+
+-- Checkpoints of scheduled batch jobs. "cutoff" is the last fully processed cutoff date,
+-- "processed" the running total of rows handled (advanced in each batch's transaction) and
+-- "locked_until" the lease of the node currently running the job.
+CREATE TABLE job_checkpoints (
+    name         VARCHAR(64) NOT NULL,
+    cutoff       DATE,
+    processed    BIGINT      NOT NULL,
+    locked_until TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    CONSTRAINT pk_job_checkpoints PRIMARY KEY (name)
+);
+
+INSERT INTO job_checkpoints (name, processed) VALUES ('minor_transition', 0);
@@ -0,0 +1,5 @@
+-- Optimistic locking and ETags: bumped by every update
+ALTER TABLE patients ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+-- MAX(updated_at) for the collection ETag of the listings
+CREATE INDEX idx_patients_updated_at ON patients (updated_at);
@@ -0,0 +1,3 @@
+-- The listing ETag is an aggregate over idx_patients_updated_at again: bumping this row
+-- locked it in every write transaction, so all patient writes queued behind one another
+DROP TABLE collection_versions;
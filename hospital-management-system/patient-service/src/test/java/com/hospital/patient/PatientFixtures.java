@@ -0,0 +1,39 @@
+package com.hospital.patient;
+
+import com.hospital.patient.dto.PatientDto;
+
+import java.time.LocalDate;
+
+// Patients for the tests: an adult born in 1985, a minor aged 7 on the day the test runs
+public final class PatientFixtures {
+
+    private PatientFixtures() {
+    }
+
+    public static PatientDto adult(String cin) {
+        return adult(cin, cin.toLowerCase() + "@example.com");
+    }
+
+    public static PatientDto adult(String cin, String email) {
+        PatientDto dto = new PatientDto();
+        dto.setCin(cin);
+        dto.setNom("Adult " + cin);
+        dto.setEmail(email);
+        dto.setDateNaissance(LocalDate.of(1985, 3, 12));
+        return dto;
+    }
+
+    public static PatientDto adult(String cin, String email, String numeroSecuriteSociale) {
+        PatientDto dto = adult(cin, email);
+        dto.setNumeroSecuriteSociale(numeroSecuriteSociale);
+        return dto;
+    }
+
+    public static PatientDto minor(String parentCin) {
+        PatientDto dto = new PatientDto();
+        dto.setNom("Child of " + parentCin);
+        dto.setParentCin(parentCin);
+        dto.setDateNaissance(LocalDate.now().minusYears(7));
+        return dto;
+    }
+}
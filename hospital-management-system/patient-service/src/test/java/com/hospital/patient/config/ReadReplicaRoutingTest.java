@@ -0,0 +1,156 @@
+package com.hospital.patient.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.patient.datasource.ReplicaRoutingDataSource;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.exception.PatientNotFoundException;
+import com.hospital.patient.service.PatientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Primary and replica are two separate in-memory databases that never replicate, so where
+// a read was served is visible in what it returns
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "patient.datasource.replica.enabled=true",
+        "patient.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL
+})
+@AutoConfigureMockMvc
+public class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "AmDee", "AmDee"));
+
+    // The replica's schema, as replication would have created it
+    static {
+        Flyway.configure().dataSource(REPLICA_URL, "AmDee", "AmDee")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load().migrate();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testReadOnlyTransactionsReadTheReplicaAndWritesGoToThePrimary() {
+        insertOnReplica("R100001");
+        patientService.createPatient(adult("R100002"));
+
+        assertTrue(ids(patientService.getAllPatients(null, 500).getContent()).contains("R100001"));
+        assertFalse(ids(patientService.getAllPatients(null, 500).getContent()).contains("R100002"));
+        // Outside a read-only transaction: the primary
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients WHERE id = 'R100002'", Integer.class));
+        // Cache loads read the primary, so a lagging replica never ends up in the cache
+        assertThrows(PatientNotFoundException.class, () -> patientService.getPatientById("R100001"));
+        assertEquals("R100002", patientService.getPatientById("R100002").getId());
+    }
+
+    @Test
+    public void testClientThatWroteReadsItsWrites() throws Exception {
+        Cookie primaryUntil = mockMvc.perform(post("/api/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adult("R200001"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie("patient-primary-until");
+        assertNotNull(primaryUntil);
+
+        mockMvc.perform(get("/api/patients").param("size", "500").cookie(primaryUntil))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("R200001")));
+        // Other clients read the replica, which does not have it
+        mockMvc.perform(get("/api/patients").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("R200001"))));
+    }
+
+    @Test
+    public void testReadsFallBackToThePrimaryWhileTheReplicaIsDown() throws SQLException {
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-fallback", "AmDee", "AmDee");
+        AtomicInteger replicaAttempts = new AtomicInteger();
+        DriverManagerDataSource down = new DriverManagerDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                replicaAttempts.incrementAndGet();
+                throw new SQLException("Connection refused");
+            }
+        };
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, down, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            try (Connection connection = routing.getConnection()) {
+                assertTrue(connection.getMetaData().getURL().contains("routing-fallback"));
+            }
+            assertFalse(routing.isReplicaAvailable());
+            // Not tried again before the retry interval
+            routing.getConnection().close();
+            assertEquals(1, replicaAttempts.get());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    public void testMinorIdBlocksAreReservedOnThePrimary() {
+        patientService.createPatient(adult("R300001"));
+        PatientDto minor = new PatientDto();
+        minor.setNom("Routing Minor");
+        minor.setDateNaissance(LocalDate.now().minusYears(6));
+        minor.setParentCin("R300001");
+        patientService.createPatient(minor);
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM id_blocks", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM id_blocks", Integer.class));
+    }
+
+    private static void insertOnReplica(String id) {
+        replica.update("INSERT INTO patients (id, nom, date_naissance, email, cin, is_minor, created_at, updated_at, version) " +
+                "VALUES (?, ?, DATE '1975-04-02', ?, ?, FALSE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)",
+                id, "Replica " + id, id.toLowerCase() + "@example.com", id);
+    }
+
+    private static java.util.List<String> ids(java.util.List<PatientDto> patients) {
+        return patients.stream().map(PatientDto::getId).collect(java.util.stream.Collectors.toList());
+    }
+}
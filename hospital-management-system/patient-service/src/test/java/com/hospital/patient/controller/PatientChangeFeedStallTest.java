@@ -0,0 +1,162 @@
+package com.hospital.patient.controller;
+
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// A client that stops reading blocks the send to it: with a single dispatch thread, the
+// other subscribers must still get their events once the write has been blocked for
+// write-timeout
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "patient.events.dispatch-threads=1",
+        "patient.events.write-timeout=200ms"
+})
+// No result printing: it reads the headers while the feed is still writing to the response
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+public class PatientChangeFeedStallTest {
+
+    private static final String STALL = "X-Test-Stall";
+
+    // Writes to the stalling client block from the moment it is armed until released
+    private static volatile boolean armed;
+    private static final CountDownLatch blocked = new CountDownLatch(1);
+    private static final CountDownLatch released = new CountDownLatch(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void release() {
+        released.countDown();
+    }
+
+    @Test
+    public void testClientThatStopsReadingDoesNotHoldTheDispatchThread() throws Exception {
+        MockHttpServletResponse stalling = subscribe(true);
+        awaitContent(stalling, "event:reset");
+        MockHttpServletResponse healthy = subscribe(false);
+        awaitContent(healthy, "event:reset");
+
+        armed = true;
+        patientService.createPatient(adult("G100001"));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS), "The send to the stalling client never blocked");
+
+        // The only dispatch thread is stuck in that send
+        patientService.createPatient(adult("G100002"));
+        awaitContent(healthy, "\"cin\":\"G100002\"");
+        assertEquals(1.0, meterRegistry.get("patient.events.stalled").counter().count());
+    }
+
+    private MockHttpServletResponse subscribe(boolean stall) throws Exception {
+        return mockMvc.perform(stall ? get("/api/patients/events").header(STALL, "true") : get("/api/patients/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (response.getContentAsString().contains(expected)) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("No " + expected + " in " + response.getContentAsString());
+    }
+
+    @TestConfiguration
+    static class StallingClient {
+
+        // Wraps the response of requests marked X-Test-Stall
+        @Bean
+        Filter stallingClientFilter() {
+            return (request, response, chain) -> {
+                boolean stall = ((HttpServletRequest) request).getHeader(STALL) != null;
+                chain.doFilter(request, stall ? new StallingResponse((HttpServletResponse) response) : response);
+            };
+        }
+    }
+
+    // Passes writes through until armed, then blocks them like a full socket buffer; the
+    // release fails them like the container's write timeout would
+    private static final class StallingResponse extends HttpServletResponseWrapper {
+
+        private StallingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            ServletOutputStream target = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] {(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    if (armed) {
+                        blocked.countDown();
+                        try {
+                            released.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IOException("Write timed out");
+                    }
+                    target.write(bytes, offset, length);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+        }
+    }
+}
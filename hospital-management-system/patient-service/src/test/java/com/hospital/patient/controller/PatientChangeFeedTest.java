@@ -0,0 +1,87 @@
+package com.hospital.patient.controller;
+
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = "eureka.client.enabled=false")
+// No result printing: it reads the headers while the feed is still writing to the response
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+public class PatientChangeFeedTest {
+
+    private static final Pattern RESET_ID = Pattern.compile("event:reset\nid:(\\S+)\n");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Test
+    public void testCommittedChangesAreStreamedAndResumable() throws Exception {
+        MockHttpServletResponse live = subscribe(null);
+        String resetId = awaitMatch(live, RESET_ID).group(1);
+
+        patientService.createPatient(adult("F100001"));
+        awaitContent(live, "event:CREATED");
+        assertTrue(live.getContentAsString().contains("\"cin\":\"F100001\""));
+
+        patientService.deletePatient("F100001");
+        awaitContent(live, "event:DELETED");
+
+        // Reconnecting from the reset replays both changes, without another reset
+        MockHttpServletResponse resumed = subscribe(resetId);
+        awaitContent(resumed, "event:DELETED");
+        assertTrue(resumed.getContentAsString().contains("event:CREATED"));
+        assertFalse(resumed.getContentAsString().contains("event:reset"));
+    }
+
+    @Test
+    public void testUnknownLastEventIdGetsAReset() throws Exception {
+        MockHttpServletResponse response = subscribe("previous-instance.42");
+        awaitMatch(response, RESET_ID);
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        return mockMvc.perform(lastEventId != null
+                        ? get("/api/patients/events").header("Last-Event-ID", lastEventId)
+                        : get("/api/patients/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        awaitMatch(response, Pattern.compile(Pattern.quote(expected)));
+    }
+
+    // Events are written by the feed's dispatch threads
+    private static Matcher awaitMatch(MockHttpServletResponse response, Pattern pattern) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Matcher matcher = pattern.matcher(response.getContentAsString());
+            if (matcher.find()) {
+                return matcher;
+            }
+            Thread.sleep(20);
+        }
+        fail("No " + pattern + " in " + response.getContentAsString());
+        return null;
+    }
+}
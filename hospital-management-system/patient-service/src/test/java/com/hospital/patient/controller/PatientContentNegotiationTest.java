@@ -0,0 +1,92 @@
+package com.hospital.patient.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.repository.PatientRepository;
+import com.hospital.patient.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The list endpoints in each wire format, through the real converter setup
+@SpringBootTest(properties = "eureka.client.enabled=false")
+@AutoConfigureMockMvc
+public class PatientContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 3; i++) {
+            String cin = "W40000" + i;
+            if (!patientRepository.existsById(cin)) {
+                PatientDto dto = new PatientDto();
+                dto.setCin(cin);
+                dto.setNom("Wire Format " + i);
+                dto.setEmail("wire" + i + "@example.com");
+                dto.setAdresse("12 rue des Formats");
+                dto.setDateNaissance(LocalDate.of(1980 + i, 6, 15));
+                patientService.createPatient(dto);
+            }
+        }
+    }
+
+    @Test
+    public void testJsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/api/patients"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/api/patients").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testBinaryFormatsCarryTheSameListInFewerBytes() throws Exception {
+        byte[] json = body(MediaType.APPLICATION_JSON);
+        byte[] cbor = body(MediaType.APPLICATION_CBOR);
+        byte[] smile = body(SMILE);
+
+        JsonNode expected = objectMapper.readTree(json);
+        assertEquals(expected, new CBORMapper().readTree(cbor));
+        assertEquals(expected, new SmileMapper().readTree(smile));
+        // Dates keep their ISO form rather than Jackson's array default
+        expected.get("content").forEach(patient -> assertTrue(patient.get("dateNaissance").isTextual()));
+        assertTrue(cbor.length < json.length, "CBOR " + cbor.length + " bytes vs JSON " + json.length);
+        assertTrue(smile.length < json.length, "Smile " + smile.length + " bytes vs JSON " + json.length);
+    }
+
+    private byte[] body(MediaType mediaType) throws Exception {
+        return mockMvc.perform(get("/api/patients").param("size", "50").header(HttpHeaders.ACCEPT, mediaType.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
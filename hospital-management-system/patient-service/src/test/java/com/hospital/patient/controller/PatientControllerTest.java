@@ -1,12 +1,17 @@
 package com.hospital.patient.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.patient.dto.CursorPage;
+import com.hospital.patient.dto.HouseholdDto;
 import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.service.PatientChangeFeed;
+import com.hospital.patient.service.PatientImportService;
 import com.hospital.patient.service.PatientService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -15,6 +20,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -29,6 +36,12 @@ public class PatientControllerTest {
     @MockBean
     private PatientService patientService;
 
+    @MockBean
+    private PatientImportService patientImportService;
+
+    @MockBean
+    private PatientChangeFeed patientChangeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -45,6 +58,7 @@ public class PatientControllerTest {
         patientDto.setNumeroSecuriteSociale("123-45-6789");
 
         PatientDto savedPatient = new PatientDto();
+        savedPatient.setId("F422181");
         savedPatient.setCin("F422181");
         savedPatient.setNom("John Doe");
         savedPatient.setEmail("john.doe@example.com");
@@ -60,7 +74,7 @@ public class PatientControllerTest {
                 .content(objectMapper.writeValueAsString(patientDto)))
                 .andDo(print())
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.id").value("F422181"))
                 .andExpect(jsonPath("$.nom").value("John Doe"))
                 .andExpect(jsonPath("$.email").value("john.doe@example.com"));
     }
@@ -79,32 +93,83 @@ public class PatientControllerTest {
 
         List<PatientDto> patients = Arrays.asList(patient1, patient2);
 
-        when(patientService.getAllPatients()).thenReturn(patients);
+        when(patientService.getPatientsETag()).thenReturn("\"2-abc\"");
+        when(patientService.getAllPatients(null, null)).thenReturn(new CursorPage<>(patients, null));
 
         mockMvc.perform(get("/api/patients"))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(2))
-                .andExpect(jsonPath("$[0].nom").value("John Doe"))
-                .andExpect(jsonPath("$[1].nom").value("Jane Smith"));
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-abc\""))
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.content[0].nom").value("John Doe"))
+                .andExpect(jsonPath("$.content[1].nom").value("Jane Smith"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    public void testGetAllPatientsWithCursor() throws Exception {
+        PatientDto patient = new PatientDto();
+        patient.setId("FA70895");
+        patient.setNom("Jane Smith");
+
+        when(patientService.getPatientsETag()).thenReturn("\"1-abc\"");
+        when(patientService.getAllPatients("RjQyMjE4MQ", 1))
+                .thenReturn(new CursorPage<>(List.of(patient), "RkE3MDg5NQ"));
+
+        mockMvc.perform(get("/api/patients").param("cursor", "RjQyMjE4MQ").param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("FA70895"))
+                .andExpect(jsonPath("$.next").value("RkE3MDg5NQ"));
+    }
+
+    @Test
+    public void testGetAllPatientsNotModified() throws Exception {
+        when(patientService.getPatientsETag()).thenReturn("\"2-abc\"");
+
+        mockMvc.perform(get("/api/patients").header(HttpHeaders.IF_NONE_MATCH, "\"2-abc\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-abc\""));
+        verify(patientService, never()).getAllPatients(any(), any());
     }
 
     @Test
     public void testGetPatientById() throws Exception {
         PatientDto patient = new PatientDto();
+        patient.setId("1");
         patient.setCin("F422181");
         patient.setNom("John Doe");
         patient.setEmail("john.doe@example.com");
 
-        when(patientService.getPatientById(toString())).thenReturn(patient);
+        when(patientService.getPatientById("1")).thenReturn(patient);
 
         mockMvc.perform(get("/api/patients/1"))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.id").value("1"))
                 .andExpect(jsonPath("$.nom").value("John Doe"));
     }
 
+    @Test
+    public void testGetHouseholds() throws Exception {
+        PatientDto parent = new PatientDto();
+        parent.setId("F422181");
+        parent.setCin("F422181");
+        PatientDto child = new PatientDto();
+        child.setId("MIN-0001");
+        child.setParentCin("F422181");
+
+        when(patientService.getHouseholds(List.of("F422181", "FA70895")))
+                .thenReturn(List.of(new HouseholdDto(parent, List.of(child))));
+
+        mockMvc.perform(get("/api/patients/households").param("parentCin", "F422181,FA70895"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].parent.cin").value("F422181"))
+                .andExpect(jsonPath("$[0].minors[0].id").value("MIN-0001"));
+    }
+
     @Test
     public void testHealthCheck() throws Exception {
         mockMvc.perform(get("/api/patients/health"))
@@ -0,0 +1,113 @@
+package com.hospital.patient.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.repository.PatientRepository;
+import com.hospital.patient.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The export endpoint end to end: the body is streamed asynchronously, so each request is
+// started and then dispatched once the StreamingResponseBody has run
+@SpringBootTest(properties = "eureka.client.enabled=false")
+@AutoConfigureMockMvc
+public class PatientExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @BeforeEach
+    public void setUp() {
+        createIfMissing("E500001", "Export Plain", "8 rue de l'Export");
+        createIfMissing("E500002", "Martin, \"Paul\"", "4 impasse du Quai\nEscalier C");
+    }
+
+    @Test
+    public void testNdjsonExportIsTheDefault() throws Exception {
+        String body = export(get("/api/patients/export"), "application/x-ndjson", "patients.ndjson");
+
+        List<PatientDto> patients = Arrays.stream(body.split("\n"))
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, PatientDto.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+        assertEquals(patientRepository.count(), patients.size());
+        PatientDto quoted = patients.stream().filter(p -> "E500002".equals(p.getId())).findFirst().orElseThrow();
+        assertEquals("Martin, \"Paul\"", quoted.getNom());
+        assertEquals("4 impasse du Quai\nEscalier C", quoted.getAdresse());
+    }
+
+    @Test
+    public void testCsvExportQuotesPerRfc4180() throws Exception {
+        String body = export(get("/api/patients/export").param("format", "CSV"), "text/csv", "patients.csv");
+
+        assertTrue(body.startsWith("id,nom,date_naissance,email,numero_telephone,adresse," +
+                "numero_securite_sociale,cin,is_minor,parent_cin,created_at,updated_at\n"));
+        assertTrue(body.contains("\nE500001,Export Plain,1979-03-21,e500001@example.com,,8 rue de l'Export,,E500001,false,,"));
+        assertTrue(body.contains("\nE500002,\"Martin, \"\"Paul\"\"\",1979-03-21,e500002@example.com,," +
+                "\"4 impasse du Quai\nEscalier C\",,E500002,false,,"));
+    }
+
+    @Test
+    public void testUnknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/patients/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(RequestBuilder builder,
+                          String contentType, String filename) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.parseMediaType(contentType)))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private void createIfMissing(String cin, String nom, String adresse) {
+        if (!patientRepository.existsById(cin)) {
+            PatientDto dto = new PatientDto();
+            dto.setCin(cin);
+            dto.setNom(nom);
+            dto.setEmail(cin.toLowerCase() + "@example.com");
+            dto.setAdresse(adresse);
+            dto.setDateNaissance(LocalDate.of(1979, 3, 21));
+            patientService.createPatient(dto);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.hospital.patient.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.monitoring.QueryBudget;
+import com.hospital.patient.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static com.hospital.patient.PatientFixtures.minor;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Statement budgets of the main endpoints, end to end through the real filter chain. Every
+// write includes the batched insert of its outbox event.
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "patient.minor-id.block-size=1000"
+})
+@AutoConfigureMockMvc
+public class PatientQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Test
+    public void testCreateReadUpdateDeleteStayWithinBudget() throws Exception {
+        mockMvc.perform(post("/api/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adult("Q100001", "budget.parent@example.com"))))
+                .andExpect(status().isCreated())
+                .andExpect(QueryBudget.atMost(2))
+                .andExpect(header().exists("X-Query-Rows"))
+                .andExpect(header().exists("X-Query-Time-Ms"));
+
+        // The first minor reserves an ID block; only later ones are representative
+        patientService.createPatient(minor("Q100001"));
+        mockMvc.perform(post("/api/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(minor("Q100001"))))
+                .andExpect(status().isCreated())
+                .andExpect(QueryBudget.atMost(3));
+
+        mockMvc.perform(get("/api/patients/{id}", "Q100001"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1));
+        // The page plus the aggregate behind the listing's ETag
+        mockMvc.perform(get("/api/patients").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(2));
+        mockMvc.perform(get("/api/patients/minors/parent/{parentCin}", "Q100001"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1));
+
+        PatientDto update = adult("Q100001", "budget.parent@example.com");
+        update.setAdresse("2 rue Neuve");
+        mockMvc.perform(put("/api/patients/{id}", "Q100001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(3));
+
+        mockMvc.perform(post("/api/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adult("Q100002", "budget.other@example.com"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/patients/{id}", "Q100002"))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(QueryBudget.atMost(3));
+    }
+
+    @Test
+    public void testConditionalRequests() throws Exception {
+        patientService.createPatient(adult("Q300001", "budget.etag@example.com"));
+
+        String etag = mockMvc.perform(get("/api/patients/{id}", "Q300001"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        // Revalidating a cached patient touches neither the database nor the body
+        mockMvc.perform(get("/api/patients/{id}", "Q300001").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andExpect(QueryBudget.atMost(0));
+
+        String listEtag = mockMvc.perform(get("/api/patients"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/patients").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(QueryBudget.atMost(1));
+
+        PatientDto update = adult("Q300001", "budget.etag@example.com");
+        update.setAdresse("3 rue Neuve");
+        String newEtag = mockMvc.perform(put("/api/patients/{id}", "Q300001")
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+
+        // A second writer still holding the old ETag is refused instead of overwriting
+        update.setAdresse("4 rue Neuve");
+        mockMvc.perform(put("/api/patients/{id}", "Q300001")
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/patients/{id}", "Q300001").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag))
+                .andExpect(jsonPath("$.adresse").value("3 rue Neuve"));
+        mockMvc.perform(get("/api/patients").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testCachedLookupNeedsNoStatement() {
+        patientService.createPatient(adult("Q200001", "budget.cached@example.com"));
+        patientService.getPatientById("Q200001");
+
+        QueryBudget.atMost(0, () -> patientService.getPatientById("Q200001"));
+    }
+}
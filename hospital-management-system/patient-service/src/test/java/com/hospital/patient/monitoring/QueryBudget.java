@@ -0,0 +1,45 @@
+package com.hospital.patient.monitoring;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Query budgets for tests: fail when an endpoint or a block of code executes more JDBC
+// statements than allowed. Counting happens on the calling thread (MockMvc requests and
+// direct service calls both run on the test thread).
+//
+//   mockMvc.perform(get("/api/patients/{id}", id)).andExpect(QueryBudget.atMost(1));
+//   PatientDto dto = QueryBudget.atMost(1, () -> patientService.getPatientById(id));
+public final class QueryBudget {
+
+    private QueryBudget() {}
+
+    // MockMvc matcher on the X-Query-Count header written by QueryStatsFilter
+    public static ResultMatcher atMost(int statements) {
+        return result -> {
+            String count = result.getResponse().getHeader(QueryStatsHeaders.COUNT);
+            assertNotNull(count, "No " + QueryStatsHeaders.COUNT + " header: is QueryStatsFilter registered?");
+            assertTrue(Long.parseLong(count) <= statements, () -> result.getRequest().getMethod() + " "
+                    + result.getRequest().getRequestURI() + " executed " + count + " statements, budget is "
+                    + statements);
+        };
+    }
+
+    public static <T> T atMost(int statements, Supplier<T> action) {
+        QueryStats.Snapshot start = QueryStats.current().snapshot();
+        T result = action.get();
+        long used = start.elapsed().getStatements();
+        assertTrue(used <= statements, () -> "Executed " + used + " statements, budget is " + statements);
+        return result;
+    }
+
+    public static void atMost(int statements, Runnable action) {
+        atMost(statements, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,173 @@
+package com.hospital.patient.outbox;
+
+import com.hospital.common.outbox.OutboxEventRepository;
+import com.hospital.common.outbox.OutboxMessage;
+import com.hospital.common.outbox.OutboxPartition;
+import com.hospital.common.outbox.OutboxPartitionRepository;
+import com.hospital.common.outbox.OutboxRelay;
+import com.hospital.common.outbox.OutboxSink;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.exception.DuplicatePatientException;
+import com.hospital.patient.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        // A database of its own: relays of other cached test contexts would drain this outbox
+        "spring.datasource.url=jdbc:h2:mem:outboxtest",
+        // Relayed by the tests themselves
+        "hospital.outbox.relay.enabled=false",
+        "hospital.outbox.sinks.file.path=target/outbox-test/events.ndjson"
+})
+public class OutboxRelayTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPartitionRepository outboxPartitionRepository;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Test
+    public void testChangesAreRelayedInOrderThenRemoved() throws IOException {
+        patientService.createPatient(adult("O100001"));
+        PatientDto update = adult("O100001");
+        update.setAdresse("5 rue Neuve");
+        patientService.updatePatient("O100001", update, null);
+        patientService.deletePatient("O100001");
+
+        outboxRelay.relay();
+
+        List<OutboxMessage> messages = recordingSink.messagesFor("O100001");
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"),
+                messages.stream().map(OutboxMessage::getType).collect(Collectors.toList()));
+        assertTrue(messages.get(0).getId() < messages.get(1).getId());
+        assertTrue(messages.get(1).getId() < messages.get(2).getId());
+        assertTrue(messages.get(1).getPayload().contains("5 rue Neuve"));
+        assertEquals(0, outboxEventRepository.count());
+        assertTrue(Files.readString(Path.of("target/outbox-test/events.ndjson")).contains("\"aggregateId\":\"O100001\""));
+    }
+
+    @Test
+    public void testFailedBatchesAreRetried() {
+        recordingSink.failing = true;
+        try {
+            patientService.createPatient(adult("O200001"));
+            outboxRelay.relay();
+            assertTrue(recordingSink.messagesFor("O200001").isEmpty());
+            assertTrue(outboxEventRepository.count() > 0);
+        } finally {
+            recordingSink.failing = false;
+        }
+
+        outboxRelay.relay();
+        assertEquals(1, recordingSink.messagesFor("O200001").size());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    public void testRolledBackChangesLeaveNoEvent() {
+        patientService.createPatient(adult("O300001"));
+        outboxRelay.relay();
+
+        assertThrows(DuplicatePatientException.class, () -> patientService.createPatient(adult("O300001")));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    public void testSinksRunOutsideAnyTransaction() {
+        patientService.createPatient(adult("O400001"));
+        outboxRelay.relay();
+
+        assertEquals(1, recordingSink.messagesFor("O400001").size());
+        assertFalse(recordingSink.calledInTransaction);
+    }
+
+    @Test
+    public void testPartitionsLeasedElsewhereWaitForTheLeaseToExpire() {
+        leaseAllPartitions(LocalDateTime.now().plusHours(1));
+        try {
+            patientService.createPatient(adult("O500001"));
+            assertEquals(0, outboxRelay.relay());
+            assertTrue(recordingSink.messagesFor("O500001").isEmpty());
+
+            leaseAllPartitions(LocalDateTime.now().minusSeconds(1));
+            outboxRelay.relay();
+            assertEquals(1, recordingSink.messagesFor("O500001").size());
+            assertEquals(0, outboxEventRepository.count());
+        } finally {
+            leaseAllPartitions(null);
+        }
+    }
+
+    // As if another node held every partition until the given time
+    private void leaseAllPartitions(LocalDateTime until) {
+        List<OutboxPartition> partitions = outboxPartitionRepository.findAll();
+        for (OutboxPartition partition : partitions) {
+            partition.setLockedBy(until == null ? null : "other-node");
+            partition.setLockedUntil(until);
+        }
+        outboxPartitionRepository.saveAll(partitions);
+    }
+
+    @TestConfiguration
+    static class Sinks {
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+        private final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile boolean calledInTransaction;
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public void deliver(List<OutboxMessage> batch) {
+            if (failing) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            calledInTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+            messages.addAll(batch);
+        }
+
+        List<OutboxMessage> messagesFor(String aggregateId) {
+            return messages.stream()
+                    .filter(message -> message.getAggregateId().equals(aggregateId))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.hospital.patient.repository;
+
+import com.hospital.common.outbox.OutboxEventRepository;
+import com.hospital.common.outbox.OutboxPartitionRepository;
+import com.hospital.common.repository.RepositoryIndexCoverage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+@DataJpaTest
+public class RepositoryIndexCoverageTest extends RepositoryIndexCoverage {
+
+    @Override
+    protected List<Class<?>> repositories() {
+        return List.of(
+                PatientRepository.class,
+                JobCheckpointRepository.class,
+                OutboxEventRepository.class,
+                OutboxPartitionRepository.class
+        );
+    }
+}
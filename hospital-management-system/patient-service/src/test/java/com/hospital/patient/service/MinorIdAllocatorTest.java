@@ -0,0 +1,78 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "patient.minor-id.block-size=8"
+})
+public class MinorIdAllocatorTest {
+
+    private static final int THREADS = 16;
+    private static final int MINORS_PER_THREAD = 25;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    public void testConcurrentMinorCreationYieldsUniqueIds() throws Exception {
+        PatientDto parent = new PatientDto();
+        parent.setCin("P900001");
+        parent.setNom("Parent Concurrent");
+        parent.setDateNaissance(LocalDate.of(1980, 5, 17));
+        patientService.createPatient(parent);
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                Callable<Void> task = () -> {
+                    start.await();
+                    for (int i = 0; i < MINORS_PER_THREAD; i++) {
+                        PatientDto minor = new PatientDto();
+                        minor.setNom("Minor " + thread + "-" + i);
+                        minor.setDateNaissance(LocalDate.now().minusYears(5));
+                        minor.setParentCin("P900001");
+                        ids.add(patientService.createPatient(minor).getId());
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * MINORS_PER_THREAD, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id.startsWith("MIN-")));
+        assertEquals(THREADS * MINORS_PER_THREAD, patientRepository.findByParentCin("P900001").size());
+    }
+}
@@ -0,0 +1,175 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.entity.JobCheckpoint;
+import com.hospital.patient.entity.Patient;
+import com.hospital.patient.exception.PatientNotFoundException;
+import com.hospital.patient.repository.JobCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static com.hospital.patient.PatientFixtures.minor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        // A database of its own: the job stamps updated_at from the fixed clock, a month
+        // ahead, which would pin the listing ETags of the other test contexts
+        "spring.datasource.url=jdbc:h2:mem:minortransitiontest",
+        "patient.minor-id.block-size=1000",
+        "patient.minor-transition.batch-size=1",
+        "patient.minor-transition.cron=-"
+})
+public class MinorTransitionJobTest {
+
+    // Patients are created (and flagged as minors) on the real date; the job runs on a
+    // fixed day a month later, by which "18 in ten days" birthdays have passed. Ten days of
+    // margin keep the flags right even if the suite runs across midnight.
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate RUN_DAY = TODAY.plusDays(30);
+
+    @Autowired
+    private MinorTransitionJob minorTransitionJob;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Clock clock;
+
+    @BeforeEach
+    public void resetCheckpoint() {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(MinorTransitionJob.JOB_NAME).orElseThrow();
+        checkpoint.setCutoff(null);
+        checkpoint.setLockedUntil(null);
+        jobCheckpointRepository.save(checkpoint);
+    }
+
+    @Test
+    public void testPromotesMinorsWhoTurnedEighteenAndRekeysThoseWithCin() {
+        patientService.createPatient(adult("T100001", "transition.parent@example.com"));
+        PatientDto withoutCin = patientService.createPatient(nearlyAdult("T100001", null));
+        PatientDto withCin = patientService.createPatient(nearlyAdult("T100001", "T100002"));
+        PatientDto young = patientService.createPatient(minor("T100001"));
+        // Cached before the run: the job must invalidate these
+        assertTrue(patientService.getPatientById(withoutCin.getId()).getIsMinor());
+        patientService.getPatientById(withCin.getId());
+        // As stored: the column rounds createPatient's nanoseconds to microseconds
+        LocalDateTime createdAt = jdbcTemplate.queryForObject(
+                "SELECT created_at FROM patients WHERE id = ?", LocalDateTime.class, withCin.getId());
+
+        long promoted = minorTransitionJob.promoteDueMinors(RUN_DAY);
+
+        assertTrue(promoted >= 2);
+        assertFalse(patientService.getPatientById(withoutCin.getId()).getIsMinor());
+        assertThrows(PatientNotFoundException.class, () -> patientService.getPatientById(withCin.getId()));
+        PatientDto rekeyed = patientService.getPatientById("T100002");
+        assertFalse(rekeyed.getIsMinor());
+        assertEquals(createdAt, rekeyed.getCreatedAt());
+        assertTrue(patientService.getPatientById(young.getId()).getIsMinor());
+
+        // The cutoff is done: running again the same day does nothing
+        assertEquals(0, minorTransitionJob.promoteDueMinors(RUN_DAY));
+        assertEquals(RUN_DAY.minusYears(Patient.ADULT_AGE),
+                jobCheckpointRepository.findById(MinorTransitionJob.JOB_NAME).orElseThrow().getCutoff());
+    }
+
+    @Test
+    public void testMinorWhoseCinIsAlreadyAnIdIsPromotedWithoutRekey() {
+        PatientDto parent = patientService.createPatient(adult("T400001", "collision.parent@example.com"));
+        // The adult's CIN changes, its ID stays T400001
+        parent.setCin("T400009");
+        patientService.updatePatient("T400001", parent);
+        PatientDto colliding = patientService.createPatient(nearlyAdult("T400009", "T400001"));
+        PatientDto free = patientService.createPatient(nearlyAdult("T400009", "T400002"));
+
+        assertTrue(minorTransitionJob.promoteDueMinors(RUN_DAY) >= 2);
+
+        PatientDto kept = patientService.getPatientById(colliding.getId());
+        assertFalse(kept.getIsMinor());
+        assertEquals("T400001", kept.getCin());
+        assertEquals("Adult T400001", patientService.getPatientById("T400001").getNom());
+        assertFalse(patientService.getPatientById("T400002").getIsMinor());
+        assertThrows(PatientNotFoundException.class, () -> patientService.getPatientById(free.getId()));
+    }
+
+    @Test
+    public void testRunWaitsForAnotherNodesLease() {
+        patientService.createPatient(adult("T200001", "lease.parent@example.com"));
+        PatientDto due = patientService.createPatient(nearlyAdult("T200001", null));
+
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(MinorTransitionJob.JOB_NAME).orElseThrow();
+        checkpoint.setLockedUntil(LocalDateTime.now(clock).plusMinutes(5));
+        jobCheckpointRepository.save(checkpoint);
+        assertEquals(0, minorTransitionJob.promoteDueMinors(RUN_DAY));
+        assertTrue(patientService.getPatientById(due.getId()).getIsMinor());
+
+        // An expired lease (the holder crashed) is taken over and the run resumes
+        checkpoint.setLockedUntil(LocalDateTime.now(clock).minusSeconds(1));
+        jobCheckpointRepository.save(checkpoint);
+        assertTrue(minorTransitionJob.promoteDueMinors(RUN_DAY) >= 1);
+        assertFalse(patientService.getPatientById(due.getId()).getIsMinor());
+    }
+
+    @Test
+    public void testMinorsListingExcludesPatientsPastTheirEighteenthBirthday() {
+        patientService.createPatient(adult("T300001", "listing.parent@example.com"));
+        PatientDto young = patientService.createPatient(minor("T300001"));
+        // Turned 18 yesterday and not flipped yet
+        jdbcTemplate.update("INSERT INTO patients (id, nom, date_naissance, is_minor, parent_cin) VALUES (?, ?, ?, TRUE, ?)",
+                "MIN-STALE", "Stale Minor", Patient.adultCutoff(TODAY).minusDays(1), "T300001");
+
+        List<String> minors = patientService.getAllMinors(null, 500).getContent().stream()
+                .map(PatientDto::getId)
+                .collect(Collectors.toList());
+        assertTrue(minors.contains(young.getId()));
+        assertFalse(minors.contains("MIN-STALE"));
+
+        // The scheduled entry point: the day comes from the clock
+        minorTransitionJob.run();
+        assertFalse(patientService.getPatientById("MIN-STALE").getIsMinor());
+    }
+
+    // A minor today who is 18 by RUN_DAY
+    private PatientDto nearlyAdult(String parentCin, String cin) {
+        PatientDto dto = minor(parentCin);
+        dto.setCin(cin);
+        dto.setDateNaissance(Patient.adultCutoff(TODAY).plusDays(10));
+        return dto;
+    }
+
+    @TestConfiguration
+    static class FixedClock {
+
+        @Bean
+        @Primary
+        public Clock fixedClock() {
+            ZoneId zone = ZoneId.systemDefault();
+            return Clock.fixed(RUN_DAY.atTime(LocalTime.of(6, 5)).atZone(zone).toInstant(), zone);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.hospital.patient.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.patient.dto.PatientDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PatientExportWriterTest {
+
+    private static final String CSV_HEADER = "id,nom,date_naissance,email,numero_telephone,adresse," +
+            "numero_securite_sociale,cin,is_minor,parent_cin,created_at,updated_at\n";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    public void testCsvQuotesOnlyFieldsThatNeedIt() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PatientExportWriter writer = new PatientExportWriter(ExportFormat.CSV, out, objectMapper)) {
+            writer.write(patient("X100001", "Plain Name", "12 rue Simple"));
+            writer.write(patient("X100002", "Dupont, \"Jean\"", "3 rue du Port\r\nBâtiment B"));
+        }
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals(CSV_HEADER +
+                "X100001,Plain Name,1980-06-15,x100001@example.com,,12 rue Simple,,X100001,false,,,\n" +
+                "X100002,\"Dupont, \"\"Jean\"\"\",1980-06-15,x100002@example.com,,\"3 rue du Port\r\nBâtiment B\",,X100002,false,,,\n",
+                csv);
+    }
+
+    @Test
+    public void testNdjsonWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PatientExportWriter writer = new PatientExportWriter(ExportFormat.NDJSON, out, objectMapper)) {
+            writer.write(patient("X200001", "First", "Line one\nLine two"));
+            writer.write(patient("X200002", "Second", null));
+            assertEquals(2, writer.getRows());
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        assertEquals("Line one\nLine two", objectMapper.readValue(lines[0], PatientDto.class).getAdresse());
+        assertEquals("X200002", objectMapper.readValue(lines[1], PatientDto.class).getId());
+    }
+
+    @Test
+    public void testHeaderAndFirstRowReachTheStreamBeforeClose() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PatientExportWriter writer = new PatientExportWriter(ExportFormat.CSV, out, objectMapper);
+        // The header is flushed as soon as the export starts, before any row is read
+        assertEquals(CSV_HEADER, out.toString(StandardCharsets.UTF_8));
+
+        writer.write(patient("X300001", "Streamed", "1 rue Rapide"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("X300001,Streamed"));
+
+        // Later rows stay buffered until the next flush
+        int flushed = out.size();
+        writer.write(patient("X300002", "Buffered", "2 rue Lente"));
+        assertEquals(flushed, out.size());
+        writer.close();
+        assertTrue(out.size() > flushed);
+    }
+
+    private static PatientDto patient(String cin, String nom, String adresse) {
+        PatientDto dto = new PatientDto();
+        dto.setId(cin);
+        dto.setCin(cin);
+        dto.setNom(nom);
+        dto.setEmail(cin.toLowerCase() + "@example.com");
+        dto.setAdresse(adresse);
+        dto.setDateNaissance(LocalDate.of(1980, 6, 15));
+        dto.setIsMinor(false);
+        return dto;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.ImportReport;
+import com.hospital.patient.dto.ImportRowResult;
+import com.hospital.patient.dto.PatientDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static com.hospital.patient.PatientFixtures.minor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "patient.import.chunk-size=2",
+        "patient.import.max-rows=6"
+})
+public class PatientImportServiceTest {
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Test
+    public void testImportResolvesParentsInBatchAndReportsEveryRow() {
+        List<PatientDto> rows = List.of(
+                minor("I200001"),                                   // parent appears later in the batch
+                adult("I200001", "import.one@example.com"),
+                adult("I200002", "import.one@example.com"),         // email already used by row 1
+                adult("I200003", "import.three@example.com"),
+                minor("I299999"),                                   // unknown parent
+                adult(null, "import.five@example.com")              // adult without CIN
+        );
+
+        ImportReport report = patientImportService.importPatients(rows);
+
+        assertEquals(6, report.getTotal());
+        assertEquals(3, report.getCreated());
+        assertEquals(3, report.getFailed());
+
+        List<ImportRowResult> results = report.getRows();
+        assertEquals(ImportRowResult.CREATED, results.get(0).getStatus());
+        assertTrue(results.get(0).getId().startsWith("MIN-"));
+        assertEquals("I200001", results.get(1).getId());
+        assertEquals("Patient with email import.one@example.com already exists", results.get(2).getError());
+        assertEquals(ImportRowResult.CREATED, results.get(3).getStatus());
+        assertEquals("Parent with CIN I299999 not found", results.get(4).getError());
+        assertEquals("CIN is required for adult patients", results.get(5).getError());
+
+        assertEquals("I200001", patientService.getPatientById(results.get(0).getId()).getParentCin());
+    }
+
+    @Test
+    public void testNdjsonIsImportedChunkByChunkUpToTheFirstUnreadableRow() {
+        String ndjson = String.join("\n",
+                "{\"nom\":\"Streamed child\",\"parentCin\":\"I300003\",\"dateNaissance\":\"" + LocalDate.now().minusYears(3) + "\"}",
+                "{\"cin\":\"I300001\",\"nom\":\"Streamed One\",\"dateNaissance\":\"1981-03-04\"}",
+                "{\"cin\":\"I300002\",\"nom\":\"Streamed Two\",\"dateNaissance\":\"1982-03-04\"}",
+                "{\"cin\":\"I300003\",\"nom\":\"Streamed Three\",\"dateNaissance\":\"1983-03-04\"}",
+                "{\"cin\":\"I300004\",\"nom\":",
+                "{\"cin\":\"I300005\",\"nom\":\"Streamed Five\",\"dateNaissance\":\"1985-03-04\"}");
+
+        ImportReport report = patientImportService.importNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        List<ImportRowResult> results = report.getRows();
+        assertEquals(5, report.getTotal());
+        assertEquals(4, report.getCreated());
+        // The minor waited for its parent from a later chunk
+        assertEquals("I300003", patientService.getPatientById(results.get(0).getId()).getParentCin());
+        assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(ImportRowResult::getIndex).collect(Collectors.toList()));
+        assertTrue(results.get(4).getError().startsWith("Malformed NDJSON"));
+        // Committed chunks reached the listeners: the search index has them
+        assertEquals(1, patientService.searchPatientsByName("Streamed Two", null, 10).getContent().size());
+    }
+
+    @Test
+    public void testNdjsonRowsBeyondTheLimitAreNotRead() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 7; i++) {
+            ndjson.append("{\"cin\":\"I40000").append(i).append("\",\"nom\":\"Limited ").append(i)
+                    .append("\",\"dateNaissance\":\"1984-05-06\"}\n");
+        }
+
+        ImportReport report = patientImportService.importNdjson(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(7, report.getTotal());
+        assertEquals(6, report.getCreated());
+        assertTrue(report.getRows().get(6).getError().startsWith("Bulk import is limited to 6 rows"));
+    }
+}
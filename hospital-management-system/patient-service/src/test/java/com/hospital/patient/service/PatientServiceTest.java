@@ -0,0 +1,200 @@
+package com.hospital.patient.service;
+
+import com.hospital.patient.dto.BatchGetResult;
+import com.hospital.patient.dto.HouseholdDto;
+import com.hospital.patient.dto.PatientDto;
+import com.hospital.patient.exception.DuplicatePatientException;
+import com.hospital.patient.exception.InvalidPatientDataException;
+import com.hospital.patient.exception.PatientModifiedException;
+import com.hospital.patient.exception.PatientNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.hospital.patient.PatientFixtures.adult;
+import static com.hospital.patient.PatientFixtures.minor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "patient.minor-id.block-size=1000",
+        "patient.batch-get.chunk-size=2"
+})
+public class PatientServiceTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testDuplicateFieldsAreReportedFromUniqueKeys() {
+        patientService.createPatient(adult("D100001", "dup.one@example.com", "111-11-1111"));
+
+        DuplicatePatientException cin = assertThrows(DuplicatePatientException.class,
+                () -> patientService.createPatient(adult("D100001", "dup.two@example.com", "222-22-2222")));
+        assertEquals("Patient with CIN D100001 already exists", cin.getMessage());
+
+        DuplicatePatientException email = assertThrows(DuplicatePatientException.class,
+                () -> patientService.createPatient(adult("D100002", "dup.one@example.com", "333-33-3333")));
+        assertEquals("Patient with email dup.one@example.com already exists", email.getMessage());
+
+        DuplicatePatientException ssn = assertThrows(DuplicatePatientException.class,
+                () -> patientService.createPatient(adult("D100003", "dup.three@example.com", "111-11-1111")));
+        assertEquals("Patient with SSN 111-11-1111 already exists", ssn.getMessage());
+    }
+
+    @Test
+    public void testMinorRequiresExistingParent() {
+        InvalidPatientDataException ex = assertThrows(InvalidPatientDataException.class,
+                () -> patientService.createPatient(minor("NOPARENT")));
+        assertEquals("Parent with CIN NOPARENT not found", ex.getMessage());
+    }
+
+    @Test
+    public void testCreateUsesOneStatementPerAdultAndTwoPerMinor() {
+        patientService.createPatient(adult("S100001", "stats.parent@example.com", "444-44-4444"));
+        // Warm the minor ID allocator so its block reservation is not counted
+        patientService.createPatient(minor("S100001"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        patientService.createPatient(adult("S100002", "stats.adult@example.com", "555-55-5555"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        patientService.createPatient(minor("S100001"));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testCachedLookupsSeeUpdatesAndMinorPromotion() {
+        patientService.createPatient(adult("C100001", "cache.parent@example.com", "666-66-6666"));
+        PatientDto child = patientService.createPatient(minor("C100001"));
+
+        // Populate the cache, then turn the minor into an adult with a CIN
+        assertEquals(child.getNom(), patientService.getPatientById(child.getId()).getNom());
+        PatientDto update = minor("C100001");
+        update.setNom("Grown Up");
+        update.setCin("C100002");
+        update.setEmail("grown.up@example.com");
+        update.setDateNaissance(LocalDate.now().minusYears(19));
+        PatientDto updated = patientService.updatePatient(child.getId(), update);
+
+        assertEquals("C100002", updated.getId());
+        assertEquals(false, updated.getIsMinor());
+        assertThrows(PatientNotFoundException.class, () -> patientService.getPatientById(child.getId()));
+        assertEquals("Grown Up", patientService.getPatientById("C100002").getNom());
+        assertEquals("C100002", patientService.getPatientByEmail("grown.up@example.com").getId());
+
+        patientService.deletePatient("C100002");
+        assertThrows(PatientNotFoundException.class, () -> patientService.getPatientByCin("C100002"));
+    }
+
+    @Test
+    public void testCallersCannotChangeWhatTheCacheHolds() {
+        PatientDto created = patientService.createPatient(adult("K100001", "cache.copy@example.com", "616-16-1616"));
+
+        patientService.getPatientById(created.getId()).setNom("Changed by a caller");
+        patientService.getPatientByCin("K100001").setAdresse("Changed by a caller");
+        patientService.getPatientsByIds(List.of(created.getId())).getContent().get(0).setEmail("changed@example.com");
+
+        PatientDto cached = patientService.getPatientById(created.getId());
+        assertEquals(created.getNom(), cached.getNom());
+        assertEquals(created.getAdresse(), cached.getAdresse());
+        assertEquals("cache.copy@example.com", cached.getEmail());
+    }
+
+    @Test
+    public void testRekeyedPatientKeepsItsVersionSoOldETagsNeverMatch() {
+        patientService.createPatient(adult("V100001", "rekey.parent@example.com", "737-73-7373"));
+        PatientDto child = patientService.createPatient(minor("V100001"));
+        String created = ETags.of(child);
+
+        PatientDto update = minor("V100001");
+        update.setCin("V100002");
+        update.setEmail("rekey.child@example.com");
+        update.setDateNaissance(LocalDate.now().minusYears(19));
+        PatientDto adult = patientService.updatePatient(child.getId(), update, created);
+
+        assertEquals("V100002", adult.getId());
+        assertTrue(adult.getVersion() > child.getVersion());
+        assertEquals(adult.getVersion(), patientService.getPatientById("V100002").getVersion());
+        // The ETag handed out for the minor must not validate a write to the re-keyed row
+        assertThrows(PatientModifiedException.class,
+                () -> patientService.updatePatient("V100002", update, created));
+    }
+
+    @Test
+    public void testNameSearchIsAccentInsensitiveWithPrefixAndFuzzyMatches() {
+        PatientDto helene = adult("N100001", "helene.benali@example.com", "777-77-7777");
+        helene.setNom("Hélène Benali");
+        patientService.createPatient(helene);
+
+        assertEquals("N100001", patientService.searchPatientsByName("helene", null, 10).getContent().get(0).getId());
+        assertEquals("N100001", patientService.searchPatientsByName("HÉLÈNE ben", null, 10).getContent().get(0).getId());
+        assertEquals("N100001", patientService.searchPatientsByName("Benalli", null, 10).getContent().get(0).getId());
+
+        patientService.deletePatient("N100001");
+        assertTrue(patientService.searchPatientsByName("helene benali", null, 10).getContent().isEmpty());
+    }
+
+    @Test
+    public void testHouseholdsAreReadWithOneStatement() {
+        patientService.createPatient(adult("H100001", "house.one@example.com", "888-88-8881"));
+        patientService.createPatient(adult("H100002", "house.two@example.com", "888-88-8882"));
+        patientService.createPatient(adult("H100003", "house.three@example.com", "888-88-8883"));
+        PatientDto first = patientService.createPatient(minor("H100001"));
+        PatientDto second = patientService.createPatient(minor("H100001"));
+        PatientDto other = patientService.createPatient(minor("H100002"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<HouseholdDto> households = patientService.getHouseholds(List.of("H100002", "H100001", "H100003", "NOBODY"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(List.of("H100002", "H100001", "H100003"),
+                households.stream().map(household -> household.getParent().getCin()).collect(Collectors.toList()));
+        assertEquals(List.of(other.getId()), ids(households.get(0).getMinors()));
+        assertEquals(List.of(first.getId(), second.getId()), ids(households.get(1).getMinors()));
+        assertTrue(households.get(2).getMinors().isEmpty());
+
+        assertEquals(2, patientService.getHousehold("H100001").getMinors().size());
+        assertThrows(PatientNotFoundException.class, () -> patientService.getHousehold("NOBODY"));
+    }
+
+    @Test
+    public void testBatchGetKeepsOrderReportsMissingAndChunksQueries() {
+        for (int i = 1; i <= 5; i++) {
+            patientService.createPatient(adult("B10000" + i, "batch" + i + "@example.com", "999-99-999" + i));
+        }
+        // Served from the cache, not queried
+        patientService.getPatientById("B100001");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BatchGetResult<PatientDto> result = patientService.getPatientsByIds(
+                List.of("B100003", "NOPE", "B100001", "B100002", "B100003", "B100004", "B100005"));
+
+        assertEquals(List.of("B100003", "B100001", "B100002", "B100004", "B100005"), ids(result.getContent()));
+        assertEquals(List.of("NOPE"), result.getMissing());
+        // Five uncached keys in IN lists of two
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private List<String> ids(List<PatientDto> patients) {
+        return patients.stream().map(PatientDto::getId).collect(Collectors.toList());
+    }
+}